@@ -0,0 +1,90 @@
+package com.nastian.bankcards.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Метрики бизнес-операций для Micrometer.
+ * <p>
+ * Таймеры регистрируются при старте для каждого исхода, поэтому ряды с нулевым
+ * счетчиком видны в Prometheus сразу (для {@code rate()} и алертов), а на горячем
+ * пути нет поиска метра в реестре. Гистограммы и перцентили не задаются в коде:
+ * они включаются по имени метра в {@code management.metrics.distribution.*}.
+ */
+@Component
+public class BankMetrics {
+
+    public static final String TRANSFERS = "bank.transfers";
+    public static final String CARD_CREATION = "bank.cards.create";
+    public static final String JWT_AUTHENTICATION = "bank.jwt.authentication";
+
+    /**
+     * Исход перевода между своими картами.
+     */
+    public enum TransferOutcome {
+        SUCCESS, INSUFFICIENT_FUNDS, CARD_NOT_ACTIVE, REJECTED
+    }
+
+    /**
+     * Результат проверки JWT в фильтре аутентификации.
+     */
+    public enum AuthenticationResult {
+        AUTHENTICATED, OUTDATED, REVOKED, INVALID, ERROR
+    }
+
+    private final MeterRegistry registry;
+    private final Map<TransferOutcome, Timer> transfers = new EnumMap<>(TransferOutcome.class);
+    private final Map<AuthenticationResult, Timer> authentications = new EnumMap<>(AuthenticationResult.class);
+    private final Timer cardsCreated;
+    private final Timer cardsFailed;
+
+    public BankMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (TransferOutcome outcome : TransferOutcome.values()) {
+            transfers.put(outcome, Timer.builder(TRANSFERS)
+                    .description("Transfers between own cards")
+                    .tag("outcome", tagValue(outcome))
+                    .register(registry));
+        }
+        for (AuthenticationResult result : AuthenticationResult.values()) {
+            authentications.put(result, Timer.builder(JWT_AUTHENTICATION)
+                    .description("JWT checks in the authentication filter")
+                    .tag("result", tagValue(result))
+                    .register(registry));
+        }
+        cardsCreated = cardCreationTimer("success");
+        cardsFailed = cardCreationTimer("error");
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void recordTransfer(Timer.Sample sample, TransferOutcome outcome) {
+        sample.stop(transfers.get(outcome));
+    }
+
+    public void recordAuthentication(Timer.Sample sample, AuthenticationResult result) {
+        sample.stop(authentications.get(result));
+    }
+
+    public void recordCardCreation(Timer.Sample sample, boolean success) {
+        sample.stop(success ? cardsCreated : cardsFailed);
+    }
+
+    private Timer cardCreationTimer(String outcome) {
+        return Timer.builder(CARD_CREATION)
+                .description("Card creation: number generation, encryption and insert")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,54 @@
+package com.nastian.bankcards.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.nastian.bankcards.entity.User;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Регионы кэша второго уровня Hibernate (Caffeine JCache).
+ * <p>
+ * Менеджер кэшей создается здесь и передается Hibernate через
+ * {@code hibernate.javax.cache.cache_manager}, поэтому размер и время жизни
+ * регионов задаются в application.yml ({@code cache.entity.*}). Регионы,
+ * не созданные здесь, при старте приводят к ошибке
+ * ({@code missing_cache_strategy: fail}). Кэшируется только {@link User}:
+ * баланс карты меняется при каждом переводе, и локальный кэш узла
+ * отдавал бы устаревший баланс. Кэш локален для узла, поэтому путь
+ * аутентификации и изменение версии токенов читают пользователя запросом
+ * к БД в обход кэша.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        // Отдельный URI на контекст: провайдер JCache хранит менеджеры глобально по URI
+        CacheManager cacheManager = new CaffeineCachingProvider()
+                .getCacheManager(URI.create("entity-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(User.CACHE_REGION, regionConfiguration(properties));
+        cacheManager.createCache(User.NATURAL_ID_CACHE_REGION, regionConfiguration(properties));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(EntityCacheProperties properties) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(properties.getTtl())));
+        configuration.setMaximumSize(OptionalLong.of(properties.getMaxSize()));
+        return configuration;
+    }
+}
@@ -0,0 +1,22 @@
+package com.nastian.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки кэша второго уровня Hibernate из application.yml.
+ * <p>
+ * Содержит: время жизни записи и максимальное количество записей
+ * для каждого региона. Кэш локальный для узла, поэтому время жизни
+ * ограничивает, как долго изменения с других узлов могут быть не видны.
+ */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache.entity")
+public class EntityCacheProperties {
+
+    private long ttl = 300000;
+    private long maxSize = 10000;
+}
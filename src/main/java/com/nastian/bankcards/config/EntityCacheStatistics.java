@@ -0,0 +1,77 @@
+package com.nastian.bankcards.config;
+
+import com.nastian.bankcards.entity.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Статистика кэша второго уровня Hibernate.
+ * <p>
+ * Счетчики попаданий, промахов и записей по регионам ведутся только при
+ * {@code hibernate.generate_statistics: true}, иначе возвращаются нули.
+ * При включенной статистике счетчики регионов публикуются в Micrometer под именами
+ * {@code hibernate.second.level.cache.*} (как у {@code HibernateMetrics}); в профиле prod
+ * статистика выключена и метры не регистрируются.
+ */
+@Component
+public class EntityCacheStatistics implements MeterBinder {
+
+    static final String REQUESTS = "hibernate.second.level.cache.requests";
+    static final String PUTS = "hibernate.second.level.cache.puts";
+
+    private static final List<String> REGIONS = List.of(User.CACHE_REGION, User.NATURAL_ID_CACHE_REGION);
+
+    private final Statistics statistics;
+
+    public EntityCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Статистика региона пользователей (загрузка по ID).
+     */
+    public CacheRegionStatistics userRegion() {
+        return statistics.getCacheRegionStatistics(User.CACHE_REGION);
+    }
+
+    /**
+     * Статистика региона natural id пользователей (username → ID).
+     */
+    public CacheRegionStatistics userNaturalIdRegion() {
+        return statistics.getCacheRegionStatistics(User.NATURAL_ID_CACHE_REGION);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        for (String region : REGIONS) {
+            counter(REQUESTS, region, "Requests to the second-level cache region",
+                    CacheRegionStatistics::getHitCount).tag("result", "hit").register(registry);
+            counter(REQUESTS, region, "Requests to the second-level cache region",
+                    CacheRegionStatistics::getMissCount).tag("result", "miss").register(registry);
+            counter(PUTS, region, "Entries put into the second-level cache region",
+                    CacheRegionStatistics::getPutCount).register(registry);
+        }
+    }
+
+    private FunctionCounter.Builder<Statistics> counter(String name, String region, String description,
+                                                        ToLongFunction<CacheRegionStatistics> count) {
+        return FunctionCounter.builder(name, statistics, stats -> {
+                    CacheRegionStatistics regionStatistics = stats.getCacheRegionStatistics(region);
+                    return regionStatistics != null ? count.applyAsLong(regionStatistics) : 0;
+                })
+                .description(description)
+                .tag("region", region);
+    }
+}
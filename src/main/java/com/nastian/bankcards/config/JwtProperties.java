@@ -4,11 +4,15 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Настройки JWT из application.yml.
  * <p>
- * Содержит: секретный ключ для подписи токенов, время жизни токена,
- * заголовок авторизации и префикс токена.
+ * Содержит: секретный ключ для подписи токенов (HMAC), ключи асимметричной подписи,
+ * время жизни access и refresh токенов, заголовок авторизации, префикс токена,
+ * параметры кэша версий токенов, кэша проверенных токенов и фильтра отозванных токенов.
  *
  */
 
@@ -18,7 +22,59 @@ import org.springframework.stereotype.Component;
 public class JwtProperties {
 
     private String secret;
-    private long expiration = 86400000;
+    private long expiration = 900000;
+    private long refreshExpiration = 2592000000L;
     private String header = "Authorization";
     private String prefix = "Bearer ";
-}
\ No newline at end of file
+    private long versionCacheTtl = 30000;
+    private long versionCacheMaxSize = 100000;
+    private TokenCache tokenCache = new TokenCache();
+    private Revocation revocation = new Revocation();
+    private Signing signing = new Signing();
+
+    /**
+     * Кэш проверенных токенов: повторные запросы с тем же токеном
+     * не проверяют подпись и не разбирают claims заново.
+     */
+    @Data
+    public static class TokenCache {
+        private boolean enabled = true;
+        private long maxSize = 10000;
+    }
+
+    /**
+     * Фильтр отозванных токенов: Bloom-фильтр в памяти, перестраиваемый
+     * из таблицы revoked_tokens и дополняемый опросом новых записей.
+     */
+    @Data
+    public static class Revocation {
+        private long pollInterval = 5000;
+        private long pollOverlap = 60000;
+        private long rebuildInterval = 3600000;
+        private int expectedInsertions = 100000;
+        private double falsePositiveRate = 0.001;
+    }
+
+    /**
+     * Подпись токенов: алгоритм (HMAC, ES256 или EdDSA), ключ для подписи
+     * и набор ключей проверки для ротации. Ключи без приватной части
+     * только проверяют ранее выданные токены.
+     */
+    @Data
+    public static class Signing {
+        private String algorithm = "HMAC";
+        private String activeKeyId;
+        private boolean acceptHmac = false;
+        private List<Key> keys = new ArrayList<>();
+    }
+
+    /**
+     * Пара ключей в формате PEM или Base64 DER (PKCS#8 для приватного, X.509 для публичного).
+     */
+    @Data
+    public static class Key {
+        private String id;
+        private String privateKey;
+        private String publicKey;
+    }
+}
@@ -0,0 +1,44 @@
+package com.nastian.bankcards.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Выборочное логирование: из сообщений логгеров с именем на {@code loggerPrefix}
+ * пропускается доля {@code rate}, остальные отбрасываются до создания события.
+ * <p>
+ * Подключается в {@code logback-spring.xml} (профиль prod) для {@code org.hibernate.SQL}:
+ * текст запросов остается в логе как образец нагрузки, но не пишется на каждый запрос.
+ * Проверки {@code isDebugEnabled()} (без текста сообщения) не отбрасываются, иначе
+ * вызов {@code debug(...)} после проверки проходил бы выборку второй раз.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    private String loggerPrefix = "";
+    private double rate = 1.0;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (format == null || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setRate(double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Sampling rate must be between 0 and 1");
+        }
+        this.rate = rate;
+    }
+}
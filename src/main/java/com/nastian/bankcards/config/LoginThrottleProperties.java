@@ -0,0 +1,24 @@
+package com.nastian.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки ограничения попыток входа из application.yml.
+ * <p>
+ * Содержит: признак включения, длину скользящего окна, лимиты попыток
+ * на username и на IP-адрес и количество счетчиков в каждой строке таблицы.
+ */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "security.login-throttle")
+public class LoginThrottleProperties {
+
+    private boolean enabled = true;
+    private long window = 60000;
+    private int maxAttemptsPerUsername = 10;
+    private int maxAttemptsPerIp = 50;
+    private int slots = 65536;
+}
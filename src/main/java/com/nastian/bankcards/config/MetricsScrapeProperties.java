@@ -0,0 +1,21 @@
+package com.nastian.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Учетные данные сборщика метрик из application.yml.
+ * <p>
+ * Содержит: имя и пароль HTTP Basic, с которыми Prometheus забирает
+ * {@code /actuator/prometheus}. Без пароля эндпоинт недоступен.
+ */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "metrics.scrape")
+public class MetricsScrapeProperties {
+
+    private String username = "prometheus";
+    private String password;
+}
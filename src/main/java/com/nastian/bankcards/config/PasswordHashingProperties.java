@@ -0,0 +1,25 @@
+package com.nastian.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки хэширования паролей из application.yml.
+ * <p>
+ * Содержит: размер выделенного пула и очереди для BCrypt, cost BCrypt
+ * (одинаковый на всех узлах) и целевое время хэширования, по которому
+ * при старте в лог пишется подсказка cost для текущего узла (0 — без замера).
+ */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "security.password-hashing")
+public class PasswordHashingProperties {
+
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    private int strength = 12;
+    private long targetLatency = 0;
+    private long retryAfter = 1;
+}
@@ -0,0 +1,39 @@
+package com.nastian.bankcards.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки ограничения частоты запросов из application.yml.
+ * <p>
+ * Содержит: признак включения, максимальное число корзин пользователей на группу
+ * и бюджеты (размер корзины и скорость пополнения) для переводов,
+ * чтения карт и администраторских эндпоинтов.
+ */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private int maxKeys = 16384;
+    private Budget transfers = new Budget(10, 1);
+    private Budget cardsRead = new Budget(60, 10);
+    private Budget admin = new Budget(120, 20);
+
+    /**
+     * Бюджет группы эндпоинтов: не более {@code capacity} запросов подряд,
+     * далее {@code refillPerSecond} запросов в секунду.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+        private int capacity;
+        private double refillPerSecond;
+    }
+}
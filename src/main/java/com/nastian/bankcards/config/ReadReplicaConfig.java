@@ -0,0 +1,79 @@
+package com.nastian.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Источники данных с репликой для чтения ({@code spring.datasource.replica.enabled: true}).
+ * <p>
+ * Основной пул настраивается как обычно ({@code spring.datasource.*},
+ * {@code spring.datasource.hikari.*}), пул реплики — в {@code spring.datasource.replica.*}
+ * со своими настройками Hikari. Без {@code url} пул реплики подключается к основной
+ * базе: так маршрутизацию можно проверить локально на одном экземпляре PostgreSQL.
+ * Liquibase, JPA и JdbcTemplate используют маршрутизирующий источник, вне read-only
+ * транзакций это основная база.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+                                              ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        if (details != null) {
+            dataSource.setJdbcUrl(details.getJdbcUrl());
+            dataSource.setUsername(details.getUsername());
+            dataSource.setPassword(details.getPassword());
+        }
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                              ReplicaProperties properties) {
+        boolean standIn = !StringUtils.hasText(properties.getUrl());
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(standIn ? primary.getJdbcUrl() : properties.getUrl())
+                .username(standIn ? primary.getUsername() : properties.getUsername())
+                .password(standIn ? primary.getPassword() : properties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               ReplicaProperties properties) {
+        return new ReplicaLagMonitor(replica, properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
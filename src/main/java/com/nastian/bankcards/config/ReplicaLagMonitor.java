@@ -0,0 +1,74 @@
+package com.nastian.bankcards.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Контроль отставания реплики.
+ * <p>
+ * Периодически измеряет задержку применения WAL на реплике. Если отставание
+ * превышает {@code spring.datasource.replica.max-lag} или реплика недоступна,
+ * read-only транзакции идут в основную базу до следующей успешной проверки.
+ * До первой проверки реплика считается непригодной.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Отставание в мс. Экземпляр не в режиме восстановления (stand-in) и реплика,
+     * применившая весь полученный WAL, считаются актуальными: время последней
+     * применённой транзакции на простаивающей базе не означает отставания.
+     */
+    static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS BIGINT) END";
+
+    private final JdbcTemplate replicaJdbc;
+    private final ReplicaProperties properties;
+
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaProperties properties) {
+        this.replicaJdbc = new JdbcTemplate(replica);
+        this.properties = properties;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.lag-check-interval:1000}")
+    public void check() {
+        Long lag;
+        try {
+            lag = replicaJdbc.queryForObject(LAG_QUERY, Long.class);
+        } catch (DataAccessException e) {
+            update(false, "replica is unavailable: " + e.getMessage());
+            return;
+        }
+
+        if (lag == null || lag > properties.getMaxLag()) {
+            update(false, "replica lag " + lag + " ms exceeds " + properties.getMaxLag() + " ms");
+        } else {
+            update(true, "replica lag " + lag + " ms");
+        }
+    }
+
+    private void update(boolean usable, String reason) {
+        if (usable == replicaUsable) {
+            return;
+        }
+        replicaUsable = usable;
+        if (usable) {
+            logger.info("Routing read-only transactions to replica: {}", reason);
+        } else {
+            logger.warn("Routing read-only transactions to primary: {}", reason);
+        }
+    }
+}
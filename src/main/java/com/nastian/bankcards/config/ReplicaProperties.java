@@ -0,0 +1,27 @@
+package com.nastian.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки реплики для чтения из application.yml.
+ * <p>
+ * Содержит: признак включения маршрутизации read-only транзакций на реплику,
+ * параметры подключения (без url используется второй пул к основной базе),
+ * допустимое отставание реплики в мс и интервал его проверки.
+ * Настройки пула Hikari реплики задаются в {@code spring.datasource.replica.hikari}.
+ */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "spring.datasource.replica")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private long maxLag = 5000;
+    private long lagCheckInterval = 1000;
+}
@@ -0,0 +1,41 @@
+package com.nastian.bankcards.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Маршрутизация соединений между основной базой и репликой.
+ * <p>
+ * Соединения read-only транзакций ({@code @Transactional(readOnly = true)})
+ * берутся из пула реплики, пока {@link ReplicaLagMonitor} считает ее пригодной,
+ * остальные — из пула основной базы. Решение принимается при получении
+ * физического соединения, поэтому источник оборачивается в
+ * {@code LazyConnectionDataSourceProxy}: к этому моменту признак read-only
+ * транзакции уже выставлен.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isReplicaUsable()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+}
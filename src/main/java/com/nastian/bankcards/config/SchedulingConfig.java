@@ -0,0 +1,16 @@
+package com.nastian.bankcards.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включение фоновых задач по расписанию (@Scheduled).
+ * <p>
+ * Используется для синхронизации фильтра отозванных токенов
+ * и очистки истекших refresh токенов.
+ */
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
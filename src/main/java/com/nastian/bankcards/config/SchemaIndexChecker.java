@@ -0,0 +1,151 @@
+package com.nastian.bankcards.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Проверка соответствия индексов, объявленных в сущностях ({@code @Table(indexes = ...)}),
+ * индексам живой схемы, созданной миграциями Liquibase.
+ * <p>
+ * Hibernate с {@code ddl-auto: validate} проверяет только таблицы и столбцы,
+ * поэтому расхождение имени или набора столбцов индекса иначе незаметно.
+ * Выполняется после старта приложения; по умолчанию расхождения пишутся в лог,
+ * с {@code schema.index-check.fail-on-mismatch: true} (в интеграционных тестах)
+ * старт завершается ошибкой. Индексы, которых нет в сущностях (например, GIN
+ * по выражениям), не проверяются.
+ */
+@Component
+public class SchemaIndexChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexChecker.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final SchemaIndexProperties properties;
+
+    public SchemaIndexChecker(EntityManagerFactory entityManagerFactory,
+                              DataSource dataSource,
+                              SchemaIndexProperties properties) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() throws SQLException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        List<Class<?>> entityTypes = entityManagerFactory.getMetamodel().getEntities().stream()
+                .<Class<?>>map(EntityType::getJavaType)
+                .toList();
+        List<String> mismatches = findMismatches(entityTypes, readSchemaIndexes(entityTypes));
+
+        if (mismatches.isEmpty()) {
+            logger.info("Schema indexes match entity declarations");
+            return;
+        }
+        if (properties.isFailOnMismatch()) {
+            throw new IllegalStateException("Schema index mismatch: " + String.join("; ", mismatches));
+        }
+        mismatches.forEach(mismatch -> logger.warn("Schema index mismatch: {}", mismatch));
+    }
+
+    /**
+     * Сравнение объявленных индексов с индексами схемы.
+     *
+     * @param entityTypes классы сущностей
+     * @param schemaIndexes индексы схемы: таблица → (имя индекса → столбцы по порядку)
+     * @return описания расхождений, пустой список если расхождений нет
+     */
+    static List<String> findMismatches(Collection<Class<?>> entityTypes,
+                                       Map<String, Map<String, List<String>>> schemaIndexes) {
+        List<String> mismatches = new ArrayList<>();
+
+        for (Class<?> entityType : entityTypes) {
+            Table table = entityType.getAnnotation(Table.class);
+            if (table == null) {
+                continue;
+            }
+
+            String tableName = table.name().toLowerCase(Locale.ROOT);
+            Map<String, List<String>> existing = schemaIndexes.getOrDefault(tableName, Map.of());
+
+            for (Index index : table.indexes()) {
+                String name = index.name().toLowerCase(Locale.ROOT);
+                List<String> declared = parseColumnList(index.columnList());
+                List<String> actual = existing.get(name);
+
+                if (actual == null) {
+                    mismatches.add(String.format("index %s %s declared on %s is missing in table %s",
+                            name, declared, entityType.getSimpleName(), tableName));
+                } else if (!actual.equals(declared)) {
+                    mismatches.add(String.format("index %s on table %s has columns %s, %s declares %s",
+                            name, tableName, actual, entityType.getSimpleName(), declared));
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private static List<String> parseColumnList(String columnList) {
+        return Arrays.stream(columnList.split(","))
+                .map(column -> column.trim().split("\\s+")[0].toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private Map<String, Map<String, List<String>>> readSchemaIndexes(List<Class<?>> entityTypes) throws SQLException {
+        Map<String, Map<String, List<String>>> result = new HashMap<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Class<?> entityType : entityTypes) {
+                Table table = entityType.getAnnotation(Table.class);
+                if (table == null || table.indexes().length == 0) {
+                    continue;
+                }
+
+                String tableName = table.name().toLowerCase(Locale.ROOT);
+                Map<String, TreeMap<Short, String>> columns = new HashMap<>();
+                try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, tableName, false, true)) {
+                    while (rs.next()) {
+                        String indexName = rs.getString("INDEX_NAME");
+                        String column = rs.getString("COLUMN_NAME");
+                        if (indexName == null || column == null) {
+                            continue;
+                        }
+                        columns.computeIfAbsent(indexName.toLowerCase(Locale.ROOT), key -> new TreeMap<>())
+                                .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                    }
+                }
+
+                Map<String, List<String>> indexes = new HashMap<>();
+                columns.forEach((name, ordered) -> indexes.put(name, List.copyOf(ordered.values())));
+                result.put(tableName, indexes);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package com.nastian.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки проверки индексов схемы из application.yml.
+ * <p>
+ * Содержит: признак включения проверки при старте и признак
+ * остановки приложения при расхождении (по умолчанию только предупреждение в лог).
+ */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "schema.index-check")
+public class SchemaIndexProperties {
+
+    private boolean enabled = true;
+    private boolean failOnMismatch = false;
+}
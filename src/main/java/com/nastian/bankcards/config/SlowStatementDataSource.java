@@ -0,0 +1,172 @@
+package com.nastian.bankcards.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Источник данных, который пишет в лог SQL-запросы дольше порога.
+ * <p>
+ * Соединения и запросы оборачиваются динамическими прокси: время измеряется
+ * вокруг {@code execute*}, для подготовленных запросов считается число
+ * привязанных параметров (наибольший индекс {@code set*}) и пакетов {@code addBatch}.
+ * В лог попадает текст запроса с {@code ?} — значения параметров (номера карт,
+ * хэши паролей) не пишутся. Время чтения {@code ResultSet} после первой порции
+ * строк в измерение не входит.
+ */
+public class SlowStatementDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowStatementDataSource.class);
+
+    /**
+     * Медленный запрос: текст без значений, время, число параметров и пакетов.
+     */
+    record SlowStatement(String sql, long millis, int parameters, int batches) {
+    }
+
+    private final long thresholdNanos;
+    private final Consumer<SlowStatement> reporter;
+
+    public SlowStatementDataSource(DataSource target, long thresholdMillis) {
+        this(target, thresholdMillis, SlowStatementDataSource::log);
+    }
+
+    SlowStatementDataSource(DataSource target, long thresholdMillis, Consumer<SlowStatement> reporter) {
+        super(target);
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.reporter = reporter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    private static void log(SlowStatement statement) {
+        if (statement.batches() > 0) {
+            logger.warn("Slow statement: {} ms, {} parameters, {} batches: {}",
+                    statement.millis(), statement.parameters(), statement.batches(), statement.sql());
+        } else {
+            logger.warn("Slow statement: {} ms, {} parameters: {}",
+                    statement.millis(), statement.parameters(), statement.sql());
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SlowStatementDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            Object result = SlowStatementDataSource.invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, new StatementHandler(statement, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, new StatementHandler(statement, (String) args[0]));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, new StatementHandler(statement, null));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private int parameters;
+        private int batches;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "addBatch":
+                    batches++;
+                    break;
+                case "clearBatch":
+                    batches = 0;
+                    break;
+                default:
+                    // set*(parameterIndex, value): у сеттеров самого Statement один аргумент
+                    if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer index) {
+                        parameters = Math.max(parameters, index);
+                    }
+                    break;
+            }
+            if (!name.startsWith("execute")) {
+                return SlowStatementDataSource.invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return SlowStatementDataSource.invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= thresholdNanos) {
+                    String text = sql != null ? sql : args != null && args.length > 0 ? (String) args[0] : "";
+                    reporter.accept(new SlowStatement(text, TimeUnit.NANOSECONDS.toMillis(elapsed), parameters,
+                            batches));
+                }
+                if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                    batches = 0;
+                }
+            }
+        }
+    }
+}
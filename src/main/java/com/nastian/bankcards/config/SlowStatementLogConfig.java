@@ -0,0 +1,38 @@
+package com.nastian.bankcards.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Журнал медленных SQL-запросов ({@code logging.slow-statements.enabled: true}, профиль prod).
+ * <p>
+ * Основной источник данных {@code dataSource} (пул Hikari или маршрутизация на реплику)
+ * оборачивается в {@link SlowStatementDataSource}, поэтому измеряются запросы JPA,
+ * JdbcTemplate и Liquibase. Пул остается доступен через {@code unwrap}, метрики Hikari
+ * продолжают работать.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "logging.slow-statements", name = "enabled", havingValue = "true")
+public class SlowStatementLogConfig {
+
+    static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor slowStatementDataSourcePostProcessor(
+            ObjectProvider<SlowStatementProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new SlowStatementDataSource(dataSource, properties.getObject().getThreshold());
+                }
+                return bean;
+            }
+        };
+    }
+}
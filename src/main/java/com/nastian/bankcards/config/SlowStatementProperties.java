@@ -0,0 +1,21 @@
+package com.nastian.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки журнала медленных SQL-запросов из application.yml.
+ * <p>
+ * Содержит: признак включения (в профиле prod) и порог в миллисекундах,
+ * начиная с которого выполнение запроса пишется в лог.
+ */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "logging.slow-statements")
+public class SlowStatementProperties {
+
+    private boolean enabled = false;
+    private long threshold = 200;
+}
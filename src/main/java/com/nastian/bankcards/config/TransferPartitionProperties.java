@@ -0,0 +1,34 @@
+package com.nastian.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки секций таблицы переводов из application.yml.
+ * <p>
+ * Содержит: на сколько месяцев вперед создавать секции, интервал обслуживания в мс
+ * и настройки архивирования старых секций.
+ */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "transfers.partitioning")
+public class TransferPartitionProperties {
+
+    private int monthsAhead = 3;
+    private long maintenanceInterval = 3600000;
+    private Archive archive = new Archive();
+
+    /**
+     * Архивирование: секции старше {@code retentionMonths} выгружаются в {@code dir}
+     * и удаляются из базы. Выключено по умолчанию; при включении срок хранения
+     * и абсолютный путь каталога обязательны.
+     */
+    @Data
+    public static class Archive {
+        private boolean enabled = false;
+        private Integer retentionMonths;
+        private String dir;
+    }
+}
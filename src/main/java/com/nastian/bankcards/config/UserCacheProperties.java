@@ -0,0 +1,22 @@
+package com.nastian.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки кэша пользователей Spring Security из application.yml.
+ * <p>
+ * Содержит: признак включения кэша, время жизни записи
+ * и максимальное количество записей.
+ */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "security.user-cache")
+public class UserCacheProperties {
+
+    private boolean enabled = true;
+    private long ttl = 300000;
+    private long maxSize = 10000;
+}
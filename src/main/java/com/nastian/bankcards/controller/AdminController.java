@@ -1,16 +1,22 @@
 package com.nastian.bankcards.controller;
 
+import com.nastian.bankcards.dto.CardCursor;
+import com.nastian.bankcards.dto.CardCursorPageResponse;
 import com.nastian.bankcards.dto.CardRequest;
 import com.nastian.bankcards.dto.CardResponse;
+import com.nastian.bankcards.dto.CardView;
 import com.nastian.bankcards.exception.ErrorResponse;
 import com.nastian.bankcards.dto.PageCardResponse;
 import com.nastian.bankcards.dto.PageUserResponse;
+import com.nastian.bankcards.dto.TransferView;
 import com.nastian.bankcards.dto.UpdateRoleRequest;
 import com.nastian.bankcards.dto.UserResponse;
 import com.nastian.bankcards.entity.Card;
 import com.nastian.bankcards.entity.CardStatus;
 import com.nastian.bankcards.entity.User;
 import com.nastian.bankcards.service.AdminService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -22,11 +28,20 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 
 /**
  * Контроллер для административных операций.
@@ -36,6 +51,7 @@ import org.springframework.web.bind.annotation.*;
  *   <li>Управления пользователями (просмотр, изменение роли, удаление)</li>
  *   <li>Управления картами (просмотр, создание, изменение статуса, удаление)</li>
  *   <li>Поиска и фильтрации с пагинацией</li>
+ *   <li>Выгрузки переводов за период</li>
  * </ul>
  * Доступ только для пользователей с ролью ADMIN.
  */
@@ -48,11 +64,15 @@ import org.springframework.web.bind.annotation.*;
 public class AdminController {
 
     private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     private final AdminService adminService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Получить всех пользователей",
-            description = "Возвращает список всех пользователей с пагинацией и поиском. Только для ADMIN")
+            description = "Возвращает список всех пользователей с пагинацией и поиском. Только для ADMIN. "
+                    + "С count=false COUNT(*) не выполняется, approximateTotal=true добавляет оценку из статистики БД")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список пользователей успешно получен",
                     content = @Content(schema = @Schema(implementation = PageUserResponse.class))),
@@ -68,10 +88,22 @@ public class AdminController {
             @Parameter(description = "Поиск по username или email (частичное совпадение)")
             @RequestParam(required = false) String search,
 
+            @Parameter(description = "false — без подсчета общего количества (на одну строку больше вместо SELECT COUNT)")
+            @RequestParam(defaultValue = "true") boolean count,
+
+            @Parameter(description = "При count=false: вернуть приблизительное общее количество по статистике БД (без поиска)")
+            @RequestParam(defaultValue = "false") boolean approximateTotal,
+
             @Parameter(description = "Пагинация: page, size, sort. Пример: page=0&size=10&sort=createdAt,desc")
             @PageableDefault(size = DEFAULT_PAGE_SIZE, sort = "createdAt", direction = Sort.Direction.DESC)
             Pageable pageable) {
 
+        if (!count) {
+            Slice<User> users = adminService.getAllUsersSlice(search, pageable);
+            Long total = approximateTotal && !StringUtils.hasText(search) ? adminService.estimateUserCount() : null;
+            return PageUserResponse.fromSlice(users.map(this::toUserResponse), total);
+        }
+
         Page<User> users = adminService.getAllUsers(search, pageable);
         return PageUserResponse.fromPage(users.map(this::toUserResponse));
     }
@@ -146,7 +178,8 @@ public class AdminController {
     }
 
     @Operation(summary = "Получить все карты",
-            description = "Возвращает список всех карт в системе с пагинацией и поиском. Только для ADMIN")
+            description = "Возвращает список всех карт в системе с пагинацией и поиском. Только для ADMIN. "
+                    + "С count=false COUNT(*) не выполняется, approximateTotal=true добавляет оценку из статистики БД")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список карт успешно получен",
                     content = @Content(schema = @Schema(implementation = PageCardResponse.class))),
@@ -162,12 +195,50 @@ public class AdminController {
             @Parameter(description = "Поиск по маске номера карты (например: 1234)")
             @RequestParam(required = false) String search,
 
+            @Parameter(description = "false — без подсчета общего количества (на одну строку больше вместо SELECT COUNT)")
+            @RequestParam(defaultValue = "true") boolean count,
+
+            @Parameter(description = "При count=false: вернуть приблизительное общее количество по статистике БД (без поиска)")
+            @RequestParam(defaultValue = "false") boolean approximateTotal,
+
             @Parameter(description = "Пагинация: page, size, sort")
             @PageableDefault(size = DEFAULT_PAGE_SIZE, sort = "createdAt", direction = Sort.Direction.DESC)
             Pageable pageable) {
 
-        Page<Card> cards = adminService.getAllCards(search, pageable);
-        return PageCardResponse.fromPage(cards.map(CardResponse::fromEntity));
+        if (!count) {
+            Slice<CardView> cards = adminService.getAllCardsSlice(search, pageable);
+            Long total = approximateTotal && !StringUtils.hasText(search) ? adminService.estimateCardCount() : null;
+            return PageCardResponse.fromSlice(cards.map(CardResponse::fromView), total);
+        }
+
+        Page<CardView> cards = adminService.getAllCards(search, pageable);
+        return PageCardResponse.fromPage(cards.map(CardResponse::fromView));
+    }
+
+    @Operation(summary = "Получить все карты по курсору",
+            description = "Режим курсора: передайте пустой cursor для первой страницы, затем nextCursor из ответа. "
+                    + "Карты упорядочены по дате создания (сначала новые). Только для ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список карт успешно получен",
+                    content = @Content(schema = @Schema(implementation = CardCursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Неверный курсор",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен - требуется роль ADMIN",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/cards", params = "cursor")
+    public CardCursorPageResponse getAllCardsByCursor(
+            @Parameter(description = "Курсор из nextCursor предыдущей страницы (пустой для первой)")
+            @RequestParam String cursor,
+
+            @Parameter(description = "Поиск по маске номера карты (например: 1234)")
+            @RequestParam(required = false) String search,
+
+            @Parameter(description = "Размер страницы (не более 100)")
+            @RequestParam(defaultValue = "10") int size) {
+
+        Slice<CardView> cards = adminService.getAllCards(search, CardCursor.decode(cursor), cursorPageSize(size));
+        return CardCursorPageResponse.fromSlice(cards);
     }
 
     @Operation(summary = "Получить карты пользователя",
@@ -192,12 +263,50 @@ public class AdminController {
             @Parameter(description = "Поиск по маске номера карты (например: 1234)")
             @RequestParam(required = false) String search,
 
+            @Parameter(description = "false — без подсчета общего количества (на одну строку больше вместо SELECT COUNT)")
+            @RequestParam(defaultValue = "true") boolean count,
+
             @Parameter(description = "Пагинация: page, size, sort (например: sort=createdAt,desc)")
             @PageableDefault(size = DEFAULT_PAGE_SIZE, sort = "createdAt", direction = Sort.Direction.DESC)
             Pageable pageable) {
 
-        Page<Card> cards = adminService.getUserCards(userId, search, pageable);
-        return PageCardResponse.fromPage(cards.map(CardResponse::fromEntity));
+        if (!count) {
+            Slice<CardView> cards = adminService.getUserCardsSlice(userId, search, pageable);
+            return PageCardResponse.fromSlice(cards.map(CardResponse::fromView), null);
+        }
+
+        Page<CardView> cards = adminService.getUserCards(userId, search, pageable);
+        return PageCardResponse.fromPage(cards.map(CardResponse::fromView));
+    }
+
+    @Operation(summary = "Получить карты пользователя по курсору",
+            description = "Режим курсора: передайте пустой cursor для первой страницы, затем nextCursor из ответа. Только для ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список карт успешно получен",
+                    content = @Content(schema = @Schema(implementation = CardCursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Неверный курсор",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен - требуется роль ADMIN",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/users/{userId}/cards", params = "cursor")
+    public CardCursorPageResponse getUserCardsByCursor(
+            @Parameter(description = "ID пользователя", required = true, example = "1")
+            @PathVariable Long userId,
+
+            @Parameter(description = "Курсор из nextCursor предыдущей страницы (пустой для первой)")
+            @RequestParam String cursor,
+
+            @Parameter(description = "Поиск по маске номера карты (например: 1234)")
+            @RequestParam(required = false) String search,
+
+            @Parameter(description = "Размер страницы (не более 100)")
+            @RequestParam(defaultValue = "10") int size) {
+
+        Slice<CardView> cards = adminService.getUserCards(userId, search, CardCursor.decode(cursor), cursorPageSize(size));
+        return CardCursorPageResponse.fromSlice(cards);
     }
 
     @Operation(summary = "Создать карту для пользователя",
@@ -273,6 +382,47 @@ public class AdminController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Выгрузить переводы за период",
+            description = "Возвращает переводы с timestamp в [from, to) в формате NDJSON (один JSON-объект на строку). "
+                    + "Строки отправляются по мере чтения из базы, порядок не гарантируется. Только для ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Переводы за период",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = TransferView.class))),
+            @ApiResponse(responseCode = "400", description = "Неверный период",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Не авторизован",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен - требуется роль ADMIN",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/transfers")
+    public ResponseEntity<StreamingResponseBody> getTransfers(
+            @Parameter(description = "Начало периода включительно (ISO, например 2026-10-01T00:00:00)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "Конец периода не включительно (ISO)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        AdminService.validateTransferRange(from, to);
+        StreamingResponseBody body = out -> {
+            // Разделитель корневых значений по умолчанию — пробел; строки разделяет writeLine
+            try (JsonGenerator generator = objectMapper.createGenerator(out).setRootValueSeparator(null)) {
+                adminService.forEachTransfer(from, to, transfer -> writeLine(generator, transfer));
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    private static void writeLine(JsonGenerator generator, TransferView transfer) {
+        try {
+            generator.writeObject(transfer);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private UserResponse toUserResponse(User user) {
         return UserResponse.builder()
                 .id(user.getId())
@@ -282,4 +432,8 @@ public class AdminController {
                 .createdAt(user.getCreatedAt())
                 .build();
     }
-}
\ No newline at end of file
+
+    private static int cursorPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+    }
+}
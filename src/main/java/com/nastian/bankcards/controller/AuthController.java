@@ -3,14 +3,19 @@ package com.nastian.bankcards.controller;
 import com.nastian.bankcards.dto.AuthRequest;
 import com.nastian.bankcards.dto.JwtResponse;
 import com.nastian.bankcards.dto.LoginRequest;
+import com.nastian.bankcards.dto.RefreshTokenRequest;
 import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.security.CustomUserDetails;
 import com.nastian.bankcards.security.JwtTokenProvider;
+import com.nastian.bankcards.security.LoginAttemptLimiter;
 import com.nastian.bankcards.service.AuthService;
+import com.nastian.bankcards.service.RefreshTokenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -27,8 +32,13 @@ import org.springframework.web.bind.annotation.*;
  * <ul>
  *   <li>Регистрации новых пользователей</li>
  *   <li>Входа в систему с получением JWT токена</li>
+ *   <li>Обновления JWT токена по одноразовому refresh токену</li>
+ *   <li>Выхода из системы с отзывом токенов</li>
  * </ul>
  * После успешной аутентификации возвращает JWT токен для доступа к защищенным ресурсам.
+ * Ответ строится из уже загруженного principal: вход выполняет одно чтение пользователя
+ * и одну проверку BCrypt, регистрация — одно чтение, одну вставку и одно хэширование.
+ * Попытки входа ограничиваются по username и IP-адресу до проверки пароля.
  */
 
 @RestController
@@ -39,6 +49,7 @@ public class AuthController {
     private final AuthService authService;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
     @Operation(summary = "Регистрация нового пользователя",
             description = "Создает нового пользователя с ролью USER (по умолчанию) или ADMIN")
@@ -52,23 +63,13 @@ public class AuthController {
     public ResponseEntity<JwtResponse> register(@Valid @RequestBody AuthRequest request) {
         User user = authService.register(request);
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsername(),
-                        request.getPassword()
-                )
-        );
+        CustomUserDetails principal = new CustomUserDetails(user);
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, principal.getAuthorities());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
 
-        return ResponseEntity.ok(new JwtResponse(
-                jwt,
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getRole()
-        ));
+        return ResponseEntity.ok(toJwtResponse(authentication));
     }
 
     @Operation(summary = "Вход в систему",
@@ -76,28 +77,75 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Успешная аутентификация",
                     content = @Content(schema = @Schema(implementation = JwtResponse.class))),
-            @ApiResponse(responseCode = "401", description = "Неверное имя пользователя или пароль")
+            @ApiResponse(responseCode = "401", description = "Неверное имя пользователя или пароль"),
+            @ApiResponse(responseCode = "429", description = "Превышен лимит попыток входа")
     })
     @PostMapping("/login")
-    public ResponseEntity<JwtResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<JwtResponse> login(@Valid @RequestBody LoginRequest request,
+                                             HttpServletRequest httpRequest) {
+        loginAttemptLimiter.recordAttempt(request.getUsername(), httpRequest.getRemoteAddr());
+
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getUsername(),
                         request.getPassword()
                 )
         );
+        loginAttemptLimiter.recordSuccess(request.getUsername(), httpRequest.getRemoteAddr());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
 
-        User user = authService.findByUsername(request.getUsername());
+        return ResponseEntity.ok(toJwtResponse(authentication));
+    }
+
+    @Operation(summary = "Обновление JWT токена",
+            description = "Обменивает refresh токен на новую пару токенов. Refresh токен одноразовый")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Токены обновлены",
+                    content = @Content(schema = @Schema(implementation = JwtResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Refresh токен невалиден, истек или уже использован")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = authService.refresh(request.getRefreshToken());
+
+        CustomUserDetails principal = new CustomUserDetails(rotation.user());
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, principal.getAuthorities());
+
+        return ResponseEntity.ok(toJwtResponse(authentication, rotation.refreshToken()));
+    }
+
+    @Operation(summary = "Выход из системы",
+            description = "Отзывает refresh токен и текущий JWT токен (если передан в заголовке Authorization)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Токены отозваны")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request,
+                                       HttpServletRequest httpRequest) {
+        authService.logout(request.getRefreshToken(), tokenProvider.resolveToken(httpRequest));
+        SecurityContextHolder.clearContext();
+
+        return ResponseEntity.noContent().build();
+    }
+
+    private JwtResponse toJwtResponse(Authentication authentication) {
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        return toJwtResponse(authentication, authService.issueRefreshToken(principal.getId()));
+    }
 
-        return ResponseEntity.ok(new JwtResponse(
+    private JwtResponse toJwtResponse(Authentication authentication, String refreshToken) {
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        String jwt = tokenProvider.generateToken(authentication);
+
+        return new JwtResponse(
                 jwt,
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getRole()
-        ));
+                refreshToken,
+                principal.getId(),
+                principal.getUsername(),
+                principal.getEmail(),
+                principal.getRole()
+        );
     }
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.*;
@@ -29,7 +30,7 @@ import java.math.BigDecimal;
  * <p>
  * Предоставляет эндпоинты для:
  * <ul>
- *   <li>Просмотра своих карт с пагинацией и поиском</li>
+ *   <li>Просмотра своих карт с пагинацией и поиском (по номеру страницы или по курсору)</li>
  *   <li>Создания новой карты</li>
  *   <li>Управления статусом карты (блокировка/активация)</li>
  *   <li>Просмотра баланса</li>
@@ -44,12 +45,14 @@ import java.math.BigDecimal;
 public class CardController {
 
     private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
     private final CardService cardService;
     private final TransferService transferService;
 
     @Operation(summary = "Получить свои карты",
-            description = "Возвращает список карт текущего пользователя с пагинацией и поиском по номеру")
+            description = "Возвращает список карт текущего пользователя с пагинацией и поиском по номеру. "
+                    + "С count=false общее количество не считается: ответ содержит только признак следующей страницы")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список карт успешно получен",
                     content = @Content(schema = @Schema(implementation = PageCardResponse.class))),
@@ -61,10 +64,13 @@ public class CardController {
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/cards")
-    public Page<CardResponse> getMyCards(
+    public PageCardResponse getMyCards(
             @Parameter(description = "Поиск по маске номера карты (например: 1234)")
             @RequestParam(required = false) String search,
 
+            @Parameter(description = "false — без подсчета общего количества (на одну строку больше вместо SELECT COUNT)")
+            @RequestParam(defaultValue = "true") boolean count,
+
             @Parameter(description = "Пагинация и сортировка. Пример: page=0&size=10&sort=createdAt,desc")
             @PageableDefault(size = DEFAULT_PAGE_SIZE, sort = "createdAt", direction = Sort.Direction.DESC)
             Pageable pageable,
@@ -72,8 +78,43 @@ public class CardController {
             @Parameter(hidden = true)
             @CurrentUser CustomUserDetails currentUser) {
 
-        Page<Card> cards = cardService.getUserCards(currentUser.getId(), search, pageable);
-        return cards.map(CardResponse::fromEntity);
+        if (!count) {
+            Slice<CardView> cards = cardService.getUserCardsSlice(currentUser.getId(), search, pageable);
+            return PageCardResponse.fromSlice(cards.map(CardResponse::fromView), null);
+        }
+
+        Page<CardView> cards = cardService.getUserCards(currentUser.getId(), search, pageable);
+        return PageCardResponse.fromPage(cards.map(CardResponse::fromView));
+    }
+
+    @Operation(summary = "Получить свои карты по курсору",
+            description = "Режим курсора: передайте пустой cursor для первой страницы, затем nextCursor из ответа. "
+                    + "Карты упорядочены по дате создания (сначала новые), время выборки не зависит от глубины")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список карт успешно получен",
+                    content = @Content(schema = @Schema(implementation = CardCursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Неверный курсор",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Не авторизован",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/cards", params = "cursor")
+    public CardCursorPageResponse getMyCardsByCursor(
+            @Parameter(description = "Курсор из nextCursor предыдущей страницы (пустой для первой)")
+            @RequestParam String cursor,
+
+            @Parameter(description = "Поиск по маске номера карты (например: 1234)")
+            @RequestParam(required = false) String search,
+
+            @Parameter(description = "Размер страницы (не более 100)")
+            @RequestParam(defaultValue = "10") int size,
+
+            @Parameter(hidden = true)
+            @CurrentUser CustomUserDetails currentUser) {
+
+        Slice<CardView> cards = cardService.getUserCards(currentUser.getId(), search, CardCursor.decode(cursor),
+                cursorPageSize(size));
+        return CardCursorPageResponse.fromSlice(cards);
     }
 
     @Operation(summary = "Создать новую карту",
@@ -178,4 +219,8 @@ public class CardController {
                 transfer.getTimestamp()
         );
     }
-}
\ No newline at end of file
+
+    private static int cursorPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,43 @@
+package com.nastian.bankcards.controller;
+
+import com.nastian.bankcards.security.JwtTokenProvider;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Контроллер публикации ключей проверки JWT.
+ * <p>
+ * Отдает публичные ключи в формате JWKS (RFC 7517), чтобы другие сервисы
+ * могли проверять токены по заголовку {@code kid} без общего секрета.
+ * Эндпоинт публичный, ответ кэшируется клиентами на 5 минут.
+ */
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+    private final JwtTokenProvider tokenProvider;
+
+    @Operation(summary = "Ключи проверки JWT",
+            description = "Возвращает публичные ключи подписи токенов в формате JWKS")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Набор ключей")
+    })
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(MAX_AGE).cachePublic())
+                .body(tokenProvider.getJwks());
+    }
+}
@@ -0,0 +1,54 @@
+package com.nastian.bankcards.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Курсор для постраничного просмотра карт по ключу {@code (created_at, id)}.
+ * <p>
+ * Карты упорядочены по убыванию даты создания и ID, курсор указывает на последнюю
+ * карту предыдущей страницы. Клиенту передается в виде непрозрачной строки Base64url.
+ * Пустой курсор означает первую страницу.
+ */
+public record CardCursor(LocalDateTime createdAt, Long id) {
+
+    /**
+     * Курсор первой страницы: позже любой существующей карты.
+     */
+    public static final CardCursor FIRST = new CardCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    public static CardCursor of(CardView card) {
+        return new CardCursor(card.createdAt(), card.id());
+    }
+
+    /**
+     * Разбор курсора из строки.
+     *
+     * @param value строка курсора или пустая строка для первой страницы
+     * @return курсор
+     * @throws IllegalArgumentException если курсор поврежден
+     */
+    public static CardCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return FIRST;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new CardCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
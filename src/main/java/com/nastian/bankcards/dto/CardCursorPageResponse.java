@@ -0,0 +1,50 @@
+package com.nastian.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * DTO для страницы с картами в режиме курсора.
+ * <p>
+ * Содержит список карт, размер страницы и курсор следующей страницы.
+ * Общее количество элементов не возвращается: страница выбирается
+ * по индексу без подсчета и без пропуска предыдущих строк.
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Страница с картами (курсор)")
+public class CardCursorPageResponse {
+
+    @Schema(description = "Список карт на текущей странице")
+    private List<CardResponse> content;
+
+    @Schema(description = "Размер страницы", example = "10")
+    private int size;
+
+    @Schema(description = "Курсор следующей страницы (null для последней страницы)", example = "MjAyNC0wMS0xNVQxMDozMDo0NXw0Mg")
+    private String nextCursor;
+
+    @Schema(description = "Есть ли следующая страница", example = "true")
+    private boolean hasNext;
+
+    public static CardCursorPageResponse fromSlice(Slice<CardView> slice) {
+        List<CardView> cards = slice.getContent();
+        String nextCursor = slice.hasNext() && !cards.isEmpty()
+                ? CardCursor.of(cards.get(cards.size() - 1)).encode()
+                : null;
+
+        return new CardCursorPageResponse(
+                cards.stream().map(CardResponse::fromView).toList(),
+                slice.getSize(),
+                nextCursor,
+                slice.hasNext()
+        );
+    }
+}
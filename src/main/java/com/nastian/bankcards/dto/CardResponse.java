@@ -66,4 +66,22 @@ public class CardResponse {
         response.setUserId(card.getUser().getId());
         return response;
     }
+
+    /**
+     * Создает CardResponse из проекции карты.
+     *
+     * @param view проекция карты
+     * @return DTO с данными карты
+     */
+    public static CardResponse fromView(CardView view) {
+        CardResponse response = new CardResponse();
+        response.setId(view.id());
+        response.setCardNumberMasked(view.cardNumberMasked());
+        response.setCardHolderName(view.cardHolderName());
+        response.setExpirationDate(view.expirationDate());
+        response.setStatus(view.status());
+        response.setBalance(view.balance());
+        response.setUserId(view.userId());
+        return response;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.nastian.bankcards.dto;
+
+import com.nastian.bankcards.entity.CardStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Проекция карты для списков.
+ * <p>
+ * Заполняется JPQL-выражением {@code SELECT new ...} в {@link com.nastian.bankcards.repository.CardRepository}:
+ * выбираются только столбцы, нужные {@link CardResponse} и курсору, без зашифрованного
+ * номера. Результат не является сущностью и не регистрируется в persistence context,
+ * поэтому Hibernate не хранит снимки для dirty checking.
+ */
+public record CardView(Long id,
+                       String cardNumberMasked,
+                       String cardHolderName,
+                       LocalDate expirationDate,
+                       CardStatus status,
+                       BigDecimal balance,
+                       Long userId,
+                       LocalDateTime createdAt) {
+}
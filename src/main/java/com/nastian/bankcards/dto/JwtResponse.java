@@ -11,6 +11,7 @@ import lombok.Data;
  * Содержит:
  * <ul>
  *   <li>JWT токен для последующих запросов</li>
+ *   <li>Refresh токен для получения нового JWT токена</li>
  *   <li>Тип токена (Bearer)</li>
  *   <li>Информацию о пользователе (ID, username, email, роль)</li>
  * </ul>
@@ -26,6 +27,11 @@ public class JwtResponse {
             requiredMode = Schema.RequiredMode.REQUIRED)
     private String token;
 
+    @Schema(description = "Refresh токен для обновления JWT токена (одноразовый)",
+            example = "q7W0rX2mS9kL4vB8nC1dE6fG3hJ5tY0uI2oP7aZ9xQw",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private String refreshToken;
+
     @Schema(description = "Тип токена (всегда Bearer)",
             example = "Bearer",
             defaultValue = "Bearer",
@@ -53,7 +59,12 @@ public class JwtResponse {
     private UserRole role;
 
     public JwtResponse(String token, Long id, String username, String email, UserRole role) {
+        this(token, null, id, username, email, role);
+    }
+
+    public JwtResponse(String token, String refreshToken, Long id, String username, String email, UserRole role) {
         this.token = token;
+        this.refreshToken = refreshToken;
         this.id = id;
         this.username = username;
         this.email = email;
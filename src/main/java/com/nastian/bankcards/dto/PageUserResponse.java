@@ -1,10 +1,12 @@
 package com.nastian.bankcards.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -17,6 +19,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Страница с пользователями")
 public class PageUserResponse {
 
@@ -29,11 +32,15 @@ public class PageUserResponse {
     @Schema(description = "Размер страницы", example = "10")
     private int size;
 
-    @Schema(description = "Общее количество элементов", example = "25")
-    private long totalElements;
+    @Schema(description = "Общее количество элементов (нет при count=false)", example = "25")
+    private Long totalElements;
 
-    @Schema(description = "Общее количество страниц", example = "3")
-    private int totalPages;
+    @Schema(description = "Общее количество страниц (нет при count=false)", example = "3")
+    private Integer totalPages;
+
+    @Schema(description = "Приблизительное общее количество по статистике БД (при count=false&approximateTotal=true)",
+            example = "25000")
+    private Long approximateTotal;
 
     @Schema(description = "Есть ли следующая страница", example = "true")
     private boolean hasNext;
@@ -54,10 +61,32 @@ public class PageUserResponse {
                 page.getSize(),
                 page.getTotalElements(),
                 page.getTotalPages(),
+                null,
                 page.hasNext(),
                 page.hasPrevious(),
                 page.isFirst(),
                 page.isLast()
         );
     }
-}
+
+    /**
+     * Ответ без подсчета общего количества: totalElements и totalPages не заполняются.
+     *
+     * @param slice срез
+     * @param approximateTotal приблизительное общее количество или null
+     */
+    public static PageUserResponse fromSlice(Slice<UserResponse> slice, Long approximateTotal) {
+        return new PageUserResponse(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                null,
+                null,
+                approximateTotal,
+                slice.hasNext(),
+                slice.hasPrevious(),
+                slice.isFirst(),
+                slice.isLast()
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.nastian.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * DTO для запроса с refresh токеном.
+ * <p>
+ * Используется для обновления JWT токена и выхода из системы.
+ */
+
+@Data
+@Schema(description = "Запрос с refresh токеном")
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh token is required")
+    @Schema(description = "Refresh токен, полученный при входе или предыдущем обновлении",
+            example = "q7W0rX2mS9kL4vB8nC1dE6fG3hJ5tY0uI2oP7aZ9xQw",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private String refreshToken;
+}
@@ -0,0 +1,21 @@
+package com.nastian.bankcards.dto;
+
+import com.nastian.bankcards.entity.TransferStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Проекция перевода для выгрузки за период.
+ * <p>
+ * Заполняется JPQL-выражением {@code SELECT new ...} в
+ * {@link com.nastian.bankcards.repository.TransferRepository}: ID карт берутся
+ * из внешних ключей без соединения с {@code cards}, сущности не создаются.
+ */
+public record TransferView(Long id,
+                           Long fromCardId,
+                           Long toCardId,
+                           BigDecimal amount,
+                           LocalDateTime timestamp,
+                           TransferStatus status) {
+}
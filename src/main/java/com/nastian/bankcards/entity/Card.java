@@ -14,8 +14,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "cards", indexes = {
-        @Index(name = "idx_card_user", columnList = "user_id"),
-        @Index(name = "idx_card_status", columnList = "status")
+        @Index(name = "idx_cards_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_cards_created_id", columnList = "created_at, id")
 })
 @Getter
 @Setter
@@ -53,7 +53,7 @@ public class Card {
     @ToString.Exclude
     private User user;
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
@@ -0,0 +1,46 @@
+package com.nastian.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отозванный access токен (по jti).
+ * <p>
+ * Время отзыва проставляется БД при вставке, чтобы узлы синхронизировали
+ * свои фильтры отзыва по единым часам.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 36)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime revokedAt;
+
+    public RevokedToken(String jti, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+    }
+}
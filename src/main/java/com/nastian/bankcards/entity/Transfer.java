@@ -13,9 +13,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "transfers", indexes = {
-        @Index(name = "idx_transfer_from_card", columnList = "from_card_id"),
-        @Index(name = "idx_transfer_to_card", columnList = "to_card_id"),
-        @Index(name = "idx_transfer_timestamp", columnList = "timestamp")
+        @Index(name = "idx_transfers_from_card", columnList = "from_card_id"),
+        @Index(name = "idx_transfers_to_card", columnList = "to_card_id")
 })
 @Getter
 @Setter
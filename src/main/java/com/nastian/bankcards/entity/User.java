@@ -7,13 +7,19 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.ToString;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users", indexes = {
-        @Index(name = "idx_user_username", columnList = "username")
+        @Index(name = "idx_users_created_id", columnList = "created_at, id")
 })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,11 +27,15 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class User {
 
+    public static final String CACHE_REGION = "user";
+    public static final String NATURAL_ID_CACHE_REGION = "user-natural-id";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @EqualsAndHashCode.Include
     private Long id;
 
+    @NaturalId
     @Column(unique = true, nullable = false, length = 50)
     private String username;
 
@@ -40,6 +50,9 @@ public class User {
     @Column(nullable = false, length = 20)
     private UserRole role;
 
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
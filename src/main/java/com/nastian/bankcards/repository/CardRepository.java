@@ -1,26 +1,86 @@
 package com.nastian.bankcards.repository;
 
+import com.nastian.bankcards.dto.CardView;
 import com.nastian.bankcards.entity.Card;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Репозиторий для работы с сущностью Card.
+ * <p>
+ * Методы {@code ...After} выбирают страницу по ключу {@code (created_at, id)}
+ * (keyset pagination): строки до курсора не читаются, поэтому время выборки
+ * не зависит от глубины страницы. Используют индексы
+ * {@code idx_cards_user_created_id} и {@code idx_cards_created_id}.
+ * <p>
+ * Методы {@code ...Slice} возвращают {@link Slice}: Spring Data выбирает
+ * на одну строку больше размера страницы и не выполняет {@code SELECT COUNT(*)}.
+ * <p>
+ * Списки возвращают проекцию {@link CardView}, а не сущности: выбираются только
+ * отображаемые столбцы, результат не попадает в persistence context.
+ * {@code pattern} — готовый шаблон {@code LIKE} (подстрока номера с экранированием);
+ * null означает отсутствие фильтра. Шаблон не собирается в запросе через {@code CONCAT}:
+ * там тип параметра не выводится, и null уходит в PostgreSQL как {@code bytea}. {@code ESCAPE}
+ * указан явно: без него Hibernate выводит {@code escape ''}, и экранирование не работает.
  */
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
 
-    Page<Card> findByUserId(Long userId, Pageable pageable);
+    String VIEW = "SELECT new com.nastian.bankcards.dto.CardView(c.id, c.cardNumberMasked, c.cardHolderName, " +
+            "c.expirationDate, c.status, c.balance, c.user.id, c.createdAt) FROM Card c ";
+
+    String USER_FILTER = "WHERE c.user.id = :userId " +
+            "AND (:pattern IS NULL OR c.cardNumberMasked LIKE :pattern ESCAPE '\\')";
+
+    String SEARCH_FILTER = "WHERE (:pattern IS NULL OR c.cardNumberMasked LIKE :pattern ESCAPE '\\')";
+
+    @Query(value = VIEW + USER_FILTER, countQuery = "SELECT COUNT(c) FROM Card c " + USER_FILTER)
+    Page<CardView> findViewsByUserId(@Param("userId") Long userId,
+                                     @Param("pattern") String pattern,
+                                     Pageable pageable);
+
+    @Query(VIEW + USER_FILTER)
+    Slice<CardView> findViewSliceByUserId(@Param("userId") Long userId,
+                                          @Param("pattern") String pattern,
+                                          Pageable pageable);
+
+    @Query(value = VIEW + SEARCH_FILTER, countQuery = "SELECT COUNT(c) FROM Card c " + SEARCH_FILTER)
+    Page<CardView> findAllViews(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(VIEW + SEARCH_FILTER)
+    Slice<CardView> findAllViewSlice(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(VIEW + USER_FILTER + " " +
+            "AND (c.createdAt, c.id) < (:createdAt, :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CardView> findByUserIdAfter(@Param("userId") Long userId,
+                                     @Param("pattern") String pattern,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
 
-    @Query("SELECT c FROM Card c WHERE c.user.id = :userId AND c.cardNumberMasked LIKE %:search%")
-    Page<Card> findByUserIdAndCardNumberMaskedContaining(@Param("userId") Long userId,
-                                                         @Param("search") String search,
-                                                         Pageable pageable);
+    @Query(VIEW + SEARCH_FILTER + " " +
+            "AND (c.createdAt, c.id) < (:createdAt, :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CardView> findAllAfter(@Param("pattern") String pattern,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Limit limit);
 
-    @Query("SELECT c FROM Card c WHERE c.cardNumberMasked LIKE %:search%")
-    Page<Card> findAllByCardNumberMaskedContaining(@Param("search") String search, Pageable pageable);
-}
\ No newline at end of file
+    /**
+     * Приблизительное количество карт по статистике PostgreSQL ({@code pg_class.reltuples}).
+     * Обновляется autovacuum/ANALYZE; отрицательное значение — таблица еще не анализировалась.
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass('cards')",
+            nativeQuery = true)
+    Long estimateCount();
+}
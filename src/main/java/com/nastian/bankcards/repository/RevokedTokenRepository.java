@@ -0,0 +1,41 @@
+package com.nastian.bankcards.repository;
+
+import com.nastian.bankcards.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с отозванными access токенами.
+ */
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    boolean existsByJti(String jti);
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    List<RevokedToken> findByRevokedAtAfter(LocalDateTime since);
+
+    /**
+     * Вставка отзыва без ошибки, если jti уже отозван. Проверка и вставка выполняются
+     * одним запросом, поэтому одновременный отзыв одного токена не нарушает уникальность jti.
+     * Время отзыва проставляет БД.
+     *
+     * @return 1, если запись добавлена, 0 — если токен уже был отозван
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (jti, expires_at) VALUES (:jti, :expiresAt) "
+            + "ON CONFLICT (jti) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,12 +1,18 @@
 package com.nastian.bankcards.repository;
 
+import com.nastian.bankcards.dto.TransferView;
 import com.nastian.bankcards.entity.Transfer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с сущностью Transfer.
@@ -21,4 +27,18 @@ public interface TransferRepository extends JpaRepository<Transfer, Long> {
 
     @Query("SELECT t FROM Transfer t WHERE t.fromCard.user.id = :userId OR t.toCard.user.id = :userId")
     List<Transfer> findByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Переводы за период {@code [from, to)} в виде потока.
+     * <p>
+     * Условие по {@code timestamp} отсекает лишние месячные секции, внутри секций
+     * используется BRIN-индекс {@code idx_transfers_timestamp_brin}. Порядок не задан:
+     * сортировка потребовала бы прочитать весь период до первой строки.
+     * Строки читаются порциями по fetch size; поток должен быть прочитан
+     * и закрыт внутри транзакции.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.nastian.bankcards.dto.TransferView(t.id, t.fromCard.id, t.toCard.id, " +
+            "t.amount, t.timestamp, t.status) FROM Transfer t WHERE t.timestamp >= :from AND t.timestamp < :to")
+    Stream<TransferView> streamByTimestampRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,24 @@
+package com.nastian.bankcards.repository;
+
+import com.nastian.bankcards.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Поиск пользователя по natural id (username) с использованием кэша второго уровня.
+ */
+public interface UserNaturalIdRepository {
+
+    /**
+     * Поиск пользователя по username через natural id Hibernate.
+     * <p>
+     * В отличие от {@code findByUsername} (JPQL-запрос, всегда обращается к БД)
+     * берет ID из региона natural id, а сущность — из региона пользователей.
+     * Вне транзакции открывается отдельная сессия, соединение с БД
+     * берется только при промахе кэша; возвращаемая сущность отсоединена.
+     *
+     * @param username имя пользователя
+     * @return пользователь, если найден
+     */
+    Optional<User> findByNaturalId(String username);
+}
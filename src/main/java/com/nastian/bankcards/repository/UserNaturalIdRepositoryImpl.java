@@ -0,0 +1,38 @@
+package com.nastian.bankcards.repository;
+
+import com.nastian.bankcards.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import java.util.Optional;
+
+/**
+ * Реализация {@link UserNaturalIdRepository}, подключается к {@link UserRepository}
+ * как фрагмент Spring Data.
+ */
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    UserNaturalIdRepositoryImpl(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public Optional<User> findByNaturalId(String username) {
+        EntityManager transactional = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (transactional != null) {
+            return load(transactional.unwrap(Session.class), username);
+        }
+        try (Session session = entityManagerFactory.unwrap(SessionFactory.class).openSession()) {
+            return load(session, username);
+        }
+    }
+
+    private static Optional<User> load(Session session, String username) {
+        return session.bySimpleNaturalId(User.class).loadOptional(username);
+    }
+}
@@ -1,13 +1,17 @@
 package com.nastian.bankcards.repository;
 
 import com.nastian.bankcards.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,16 +19,57 @@ import java.util.Optional;
  */
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
+    String SEARCH_FILTER = "WHERE lower(u.username) LIKE :pattern OR lower(u.email) LIKE :pattern";
+
+    String SEARCH = "SELECT u.* FROM users u " + SEARCH_FILTER;
+
+    /**
+     * Поиск по username запросом к БД, без кэша второго уровня.
+     * Используется при аутентификации: роль и версия токенов должны быть актуальными.
+     */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Пользователь из БД (не из кэша второго уровня) с блокировкой строки до конца транзакции:
+     * новая версия токенов считается от актуальной, параллельные изменения роли не теряются.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :userId")
+    Optional<User> findByIdForUpdate(@Param("userId") Long userId);
+
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    List<User> findByUsernameOrEmail(String username, String email);
+
+    /**
+     * Поиск по подстроке в username или email.
+     * <p>
+     * Нативный запрос: условия {@code lower(...) LIKE} совпадают с выражениями
+     * GIN-индексов {@code idx_users_username_trgm} и {@code idx_users_email_trgm} (pg_trgm),
+     * поэтому PostgreSQL объединяет два bitmap-скана вместо последовательного чтения таблицы.
+     * Индекс используется для подстрок от 3 символов.
+     * Сортировка передается по именам столбцов, а не свойств сущности.
+     *
+     * @param pattern шаблон LIKE в нижнем регистре, например {@code %ivan%} (спецсимволы экранированы)
+     */
+    @Query(value = SEARCH, countQuery = "SELECT COUNT(*) FROM users u " + SEARCH_FILTER, nativeQuery = true)
+    Page<User> searchUsers(@Param("pattern") String pattern, Pageable pageable);
+
+    Slice<User> findSliceBy(Pageable pageable);
+
+    @Query(value = SEARCH, nativeQuery = true)
+    Slice<User> searchUsersSlice(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Приблизительное количество пользователей по статистике PostgreSQL ({@code pg_class.reltuples}).
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass('users')",
+            nativeQuery = true)
+    Long estimateCount();
 
-    @Query("SELECT u FROM User u WHERE " +
-            "LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))")
-    Page<User> searchUsers(@Param("search") String search, Pageable pageable);
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :userId")
+    Optional<Integer> findTokenVersionById(@Param("userId") Long userId);
 }
\ No newline at end of file
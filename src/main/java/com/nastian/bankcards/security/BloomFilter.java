@@ -0,0 +1,85 @@
+package com.nastian.bankcards.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный Bloom-фильтр для строковых идентификаторов.
+ * <p>
+ * Используется {@link RevokedTokenRegistry}: отрицательный ответ точен,
+ * положительный требует подтверждения по БД. Позиции битов вычисляются
+ * двойным хэшированием от 64-битного хэша строки.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        int words = (int) ((bitCount + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Создание фильтра под ожидаемое количество элементов и долю ложных срабатываний.
+     *
+     * @param expectedInsertions ожидаемое количество элементов
+     * @param falsePositiveRate допустимая доля ложных срабатываний
+     * @return пустой фильтр
+     */
+    static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, Double.MIN_VALUE), 0.5);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2))));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(m, k);
+    }
+
+    void put(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
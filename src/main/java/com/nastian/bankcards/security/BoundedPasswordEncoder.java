@@ -0,0 +1,184 @@
+package com.nastian.bankcards.security;
+
+import com.nastian.bankcards.config.PasswordHashingProperties;
+import com.nastian.bankcards.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PasswordEncoder, выполняющий BCrypt в выделенном ограниченном пуле.
+ * <p>
+ * Хэширование паролей — самая дорогая операция входа и регистрации.
+ * Чтобы всплеск логинов не занимал все потоки Tomcat:
+ * <ul>
+ *   <li>Хэширование выполняется в пуле фиксированного размера с ограниченной очередью</li>
+ *   <li>При переполнении очереди запрос отклоняется с {@link TooManyRequestsException} (HTTP 429)</li>
+ *   <li>Cost BCrypt задается в настройках и одинаков на всех узлах</li>
+ *   <li>Хэши с меньшим cost помечаются для перехэширования при следующем входе</li>
+ * </ul>
+ * Cost не подбирается автоматически: замер зависит от узла, перезапуска и нагрузки
+ * при старте, и узлы за балансировщиком перехэшировали бы пароль друг за другом.
+ * Подбор под целевое время только пишется в лог как подсказка.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final int BCRYPT_MIN_STRENGTH = 4;
+    private static final int BCRYPT_MAX_STRENGTH = 31;
+    private static final int CALIBRATION_MIN_STRENGTH = 10;
+
+    private final PasswordEncoder delegate;
+    private final int strength;
+    private final long retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int poolSize, int queueCapacity,
+                           long retryAfterSeconds) {
+        this.delegate = delegate;
+        this.strength = strength;
+        this.retryAfterSeconds = retryAfterSeconds;
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                queue, threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Создание encoder по настройкам {@code security.password-hashing.*}.
+     * <p>
+     * Cost берется из {@code strength}. Если задано {@code target-latency}, в лог
+     * дополнительно пишется cost, подобранный под это время на текущем узле.
+     *
+     * @param properties настройки хэширования
+     * @return encoder
+     */
+    public static BoundedPasswordEncoder create(PasswordHashingProperties properties) {
+        int strength = properties.getStrength();
+        if (strength < BCRYPT_MIN_STRENGTH || strength > BCRYPT_MAX_STRENGTH) {
+            throw new IllegalStateException("security.password-hashing.strength must be between "
+                    + BCRYPT_MIN_STRENGTH + " and " + BCRYPT_MAX_STRENGTH);
+        }
+        log.info("Password hashing: BCrypt cost {}, pool size {}, queue capacity {}",
+                strength, properties.getPoolSize(), properties.getQueueCapacity());
+        if (properties.getTargetLatency() > 0) {
+            log.info("BCrypt cost for {} ms on this node: {} (not applied, configured cost is {})",
+                    properties.getTargetLatency(),
+                    calibrate(properties.getTargetLatency(), CALIBRATION_MIN_STRENGTH, BCRYPT_MAX_STRENGTH),
+                    strength);
+        }
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), strength,
+                properties.getPoolSize(), properties.getQueueCapacity(), properties.getRetryAfter());
+    }
+
+    /**
+     * Подбор cost BCrypt под целевое время хэширования (диагностика, не применяется).
+     * <p>
+     * Время измеряется на минимальном cost; каждый следующий cost
+     * удваивает время, поэтому выбирается наибольший cost, укладывающийся в цель.
+     *
+     * @param targetLatencyMillis целевое время хэширования в миллисекундах
+     * @param minStrength минимальный cost
+     * @param maxStrength максимальный cost
+     * @return подобранный cost
+     */
+    static int calibrate(long targetLatencyMillis, int minStrength, int maxStrength) {
+        int min = Math.max(BCRYPT_MIN_STRENGTH, minStrength);
+        int max = Math.min(BCRYPT_MAX_STRENGTH, Math.max(min, maxStrength));
+
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(min);
+        probe.encode("calibration");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+
+        int strength = min;
+        long estimatedNanos = elapsedNanos;
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        while (strength < max && estimatedNanos * 2 <= targetNanos) {
+            estimatedNanos *= 2;
+            strength++;
+        }
+        log.debug("BCrypt calibration: cost {} took {} ms, selected cost {}",
+                min, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), strength);
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Хэш требует перехэширования, если его cost меньше текущего.
+     * Хэши с большим cost не понижаются.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    /**
+     * @return используемый cost BCrypt
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Остановка пула при закрытии контекста.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing queue is full, rejecting request");
+            throw new TooManyRequestsException("Too many authentication requests, try again later",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.nastian.bankcards.security;
 
 import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.entity.UserRole;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,8 +17,12 @@ import java.util.List;
  * <ul>
  *   <li>ID пользователя (для доступа в контроллерах)</li>
  *   <li>Username и password для аутентификации</li>
+ *   <li>Email (для ответа на вход и регистрацию)</li>
  *   <li>Роль (преобразуется в GrantedAuthority с префиксом ROLE_)</li>
+ *   <li>Версию токенов пользователя (для отзыва ранее выданных JWT)</li>
  * </ul>
+ * При аутентификации по JWT объект собирается из claims токена без обращения к БД,
+ * поэтому password и email в этом случае равны null.
  */
 public class CustomUserDetails implements UserDetails {
 
@@ -25,14 +30,33 @@ public class CustomUserDetails implements UserDetails {
     private final Long id;
     private final String username;
     private final String password;
+    @Getter
+    private final String email;
+    @Getter
+    private final UserRole role;
+    @Getter
+    private final int tokenVersion;
     private final Collection<? extends GrantedAuthority> authorities;
 
     public CustomUserDetails(User user) {
-        this.id = user.getId();
-        this.username = user.getUsername();
-        this.password = user.getPassword();
+        this(user.getId(), user.getUsername(), user.getPassword(), user.getEmail(),
+                user.getRole(), user.getTokenVersion());
+    }
+
+    public CustomUserDetails(Long id, String username, UserRole role, int tokenVersion) {
+        this(id, username, null, null, role, tokenVersion);
+    }
+
+    private CustomUserDetails(Long id, String username, String password, String email,
+                              UserRole role, int tokenVersion) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.email = email;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
         this.authorities = List.of(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
+                new SimpleGrantedAuthority("ROLE_" + role.name())
         );
     }
 
@@ -70,4 +94,4 @@ public class CustomUserDetails implements UserDetails {
     public boolean isEnabled() {
         return true;
     }
-}
\ No newline at end of file
+}
@@ -1,33 +1,146 @@
 package com.nastian.bankcards.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nastian.bankcards.config.UserCacheProperties;
 import com.nastian.bankcards.entity.User;
 import com.nastian.bankcards.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
 
 /**
  * Сервис для загрузки пользователя по username в Spring Security.
  * <p>
  * Используется при аутентификации для получения данных пользователя из БД.
+ * Загруженные пользователи кэшируются с ограничением по размеру и времени жизни
+ * ({@code security.user-cache.*}); при изменении пользователя запись
+ * удаляется через {@link #evict(String)}.
+ * <p>
+ * {@code evict} очищает только кэш этого узла. Поэтому запись из кэша используется,
+ * только пока ее версия токенов совпадает с {@link TokenVersionRegistry}: роль и версия
+ * меняются вместе, удаленный пользователь отзывается. Если пользователя изменили
+ * или удалили на другом узле, запись перечитывается из БД не позже чем через
+ * {@code jwt.version-cache-ttl}, а не через время жизни кэша. Статистика кэша публикуется в Micrometer
+ * как метрики {@code cache.*} с тегом {@code cache=security.users}.
+ * <p>
+ * Реализует {@link UserDetailsPasswordService}: если cost хэша пароля отличается
+ * от текущего, Spring Security перехэширует пароль при успешном входе.
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService, MeterBinder {
+
+    static final String CACHE_NAME = "security.users";
 
     private final UserRepository userRepository;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final Cache<String, CustomUserDetails> cache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, TokenVersionRegistry tokenVersionRegistry,
+                                    UserCacheProperties cacheProperties) {
         this.userRepository = userRepository;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.cache = cacheProperties.isEnabled()
+                ? Caffeine.newBuilder()
+                        .expireAfterWrite(Duration.ofMillis(cacheProperties.getTtl()))
+                        .maximumSize(cacheProperties.getMaxSize())
+                        .recordStats()
+                        .build()
+                : null;
     }
 
+    /**
+     * Загрузка пользователя по username.
+     * <p>
+     * Метод намеренно не транзакционный: при попадании в кэш
+     * соединение с БД не берется из пула. Запись с устаревшей версией токенов
+     * (пользователь изменен или удален на другом узле) перечитывается.
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (cache == null) {
+            return load(username);
+        }
+        CustomUserDetails cached = cache.get(username, this::load);
+        if (tokenVersionRegistry.isCurrent(cached.getId(), cached.getTokenVersion())) {
+            return cached;
+        }
+        cache.invalidate(username);
+        return cache.get(username, this::load);
+    }
+
+    /**
+     * Сохранение перехэшированного пароля после успешного входа.
+     *
+     * @param user аутентифицированный пользователь
+     * @param newPassword новый хэш пароля
+     * @return пользователь с обновленным паролем
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + user.getUsername()));
+        entity.setPassword(newPassword);
+        User saved = userRepository.save(entity);
+        evict(saved.getUsername());
+        return new CustomUserDetails(saved);
+    }
+
+    /**
+     * Удаление пользователя из кэша.
+     * <p>
+     * Если вызов выполняется внутри транзакции, запись дополнительно удаляется
+     * после ее завершения, чтобы параллельная загрузка не вернула в кэш старые данные.
+     *
+     * @param username имя пользователя
+     */
+    public void evict(String username) {
+        if (cache == null) {
+            return;
+        }
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Статистика кэша пользователей.
+     *
+     * @return статистика попаданий и промахов (пустая, если кэш выключен)
+     */
+    public CacheStats getCacheStats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        }
+    }
+
+    private CustomUserDetails load(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
         return new CustomUserDetails(user);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,10 @@
 package com.nastian.bankcards.security;
 
-import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.config.BankMetrics;
+import com.nastian.bankcards.config.BankMetrics.AuthenticationResult;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +12,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,57 +22,75 @@ import java.io.IOException;
  * Фильтр для обработки JWT токенов из HTTP-запросов.
  * <p>
  * Выполняется один раз за запрос, извлекает токен из заголовка,
- * валидирует его и устанавливает аутентификацию в SecurityContext.
+ * валидирует его (подпись проверяется один раз, повторные запросы с тем же
+ * токеном обслуживаются {@link VerifiedTokenCache}) и устанавливает аутентификацию
+ * в SecurityContext.
+ * <p>
+ * Principal собирается из claims токена без обращения к БД. Актуальность токена
+ * проверяется по версии токенов пользователя в {@link TokenVersionRegistry},
+ * отзыв конкретного токена — по jti в {@link RevokedTokenRegistry}.
+ * Время и результат проверки запросов с токеном записываются в таймер
+ * {@value BankMetrics#JWT_AUTHENTICATION}.
  */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final CustomUserDetailsService userDetailsService;
-    private final JwtProperties jwtProperties;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final BankMetrics metrics;
 
     public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
-                                   CustomUserDetailsService userDetailsService,
-                                   JwtProperties jwtProperties) {
+                                   VerifiedTokenCache verifiedTokenCache,
+                                   TokenVersionRegistry tokenVersionRegistry,
+                                   RevokedTokenRegistry revokedTokenRegistry,
+                                   BankMetrics metrics) {
         this.tokenProvider = tokenProvider;
-        this.userDetailsService = userDetailsService;
-        this.jwtProperties = jwtProperties;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.metrics = metrics;
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
-        try {
-            String jwt = getJwtFromRequest(request);
+        String jwt = tokenProvider.resolveToken(request);
+        if (StringUtils.hasText(jwt)) {
+            Timer.Sample sample = metrics.start();
+            metrics.recordAuthentication(sample, authenticate(jwt, request));
+        }
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        filterChain.doFilter(request, response);
+    }
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+    private AuthenticationResult authenticate(String jwt, HttpServletRequest request) {
+        try {
+            Claims claims = verifiedTokenCache.verify(jwt);
+            CustomUserDetails userDetails = tokenProvider.getUserDetailsFromClaims(claims);
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (!tokenVersionRegistry.isCurrent(userDetails.getId(), userDetails.getTokenVersion())) {
+                logger.debug("Rejected outdated JWT token for user " + userDetails.getId());
+                return AuthenticationResult.OUTDATED;
+            }
+            if (claims.getId() == null || revokedTokenRegistry.isRevoked(claims.getId())) {
+                logger.debug("Rejected revoked JWT token for user " + userDetails.getId());
+                return AuthenticationResult.REVOKED;
             }
-        } catch (Exception ex) {
-            logger.error("Could not set user authentication in security context", ex);
-        }
 
-        filterChain.doFilter(request, response);
-    }
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-    /**
-     * Извлечение JWT токена из заголовка Authorization.
-     *
-     * @param request HTTP-запрос
-     * @return токен или null
-     */
-    private String getJwtFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader(jwtProperties.getHeader());
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(jwtProperties.getPrefix())) {
-            return bearerToken.substring(jwtProperties.getPrefix().length());
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            return AuthenticationResult.AUTHENTICATED;
+        } catch (JwtException | IllegalArgumentException ex) {
+            logger.error("Invalid JWT token: " + ex.getMessage());
+            return AuthenticationResult.INVALID;
+        } catch (Exception ex) {
+            logger.error("Could not set user authentication in security context", ex);
+            return AuthenticationResult.ERROR;
         }
-        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,200 @@
+package com.nastian.bankcards.security;
+
+import com.nastian.bankcards.config.JwtProperties;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Набор ключей подписи и проверки JWT.
+ * <p>
+ * Для HMAC используется секрет из {@code jwt.secret} (HS256/HS384/HS512 по длине
+ * секрета). Для ES256 и EdDSA токены подписываются активным ключом с заголовком
+ * {@code kid}, а проверяются любым
+ * ключом из {@code jwt.signing.keys}: при ротации новый ключ становится активным,
+ * а старый остается для проверки, пока не истекут выданные им токены.
+ * Если асимметричные ключи не заданы, при старте генерируется временная пара
+ * (только для разработки: токены не переживают перезапуск).
+ * <p>
+ * Публичные ключи публикуются в формате JWKS, чтобы другие сервисы могли
+ * проверять токены без общего секрета.
+ */
+final class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final SignatureAlgorithm algorithm;
+    private final String signingKeyId;
+    private final Key signingKey;
+    private final SecretKey hmacKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final String jwks;
+
+    private JwtKeyRing(SignatureAlgorithm algorithm, String signingKeyId, Key signingKey,
+                       SecretKey hmacKey, Map<String, PublicKey> verificationKeys) {
+        this.algorithm = algorithm;
+        this.signingKeyId = signingKeyId;
+        this.signingKey = signingKey;
+        this.hmacKey = hmacKey;
+        this.verificationKeys = verificationKeys;
+        this.jwks = verificationKeys.entrySet().stream()
+                .map(entry -> Jwks.json(toJwk(entry.getKey(), entry.getValue())))
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+    }
+
+    /**
+     * Создание набора ключей из настроек.
+     *
+     * @param properties настройки JWT
+     * @return набор ключей
+     * @throws IllegalStateException если настройки ключей некорректны
+     */
+    static JwtKeyRing create(JwtProperties properties) {
+        JwtProperties.Signing signing = properties.getSigning();
+        SecretKey hmacKey = StringUtils.hasText(properties.getSecret())
+                ? Keys.hmacShaKeyFor(properties.getSecret().getBytes())
+                : null;
+
+        if ("HMAC".equals(signing.getAlgorithm())) {
+            if (hmacKey == null) {
+                throw new IllegalStateException("jwt.secret is required for HMAC signing");
+            }
+            return new JwtKeyRing(null, null, hmacKey, hmacKey, Map.of());
+        }
+
+        SignatureAlgorithm algorithm = resolveAlgorithm(signing.getAlgorithm());
+
+        Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+        String signingKeyId = signing.getActiveKeyId();
+        PrivateKey signingKey = null;
+
+        if (signing.getKeys().isEmpty()) {
+            KeyPair pair = algorithm == Jwts.SIG.ES256
+                    ? Jwts.SIG.ES256.keyPair().build()
+                    : Jwks.CRV.Ed25519.keyPair().build();
+            signingKeyId = toJwk(null, pair.getPublic()).getId();
+            signingKey = pair.getPrivate();
+            verificationKeys.put(signingKeyId, pair.getPublic());
+            logger.warn("No JWT signing keys configured, generated ephemeral {} key {}", signing.getAlgorithm(), signingKeyId);
+        }
+
+        for (JwtProperties.Key key : signing.getKeys()) {
+            PublicKey publicKey = decodePublicKey(algorithm, key.getPublicKey());
+            String id = StringUtils.hasText(key.getId()) ? key.getId() : toJwk(null, publicKey).getId();
+            verificationKeys.put(id, publicKey);
+
+            if (StringUtils.hasText(key.getPrivateKey()) && (signingKeyId == null || signingKeyId.equals(id))) {
+                signingKeyId = id;
+                signingKey = decodePrivateKey(algorithm, key.getPrivateKey());
+            }
+        }
+
+        if (signingKey == null) {
+            throw new IllegalStateException("No private key configured for active JWT key " + signingKeyId);
+        }
+
+        return new JwtKeyRing(algorithm, signingKeyId, signingKey,
+                signing.isAcceptHmac() ? hmacKey : null, Map.copyOf(verificationKeys));
+    }
+
+    /**
+     * Алгоритм подписи или null для HMAC (алгоритм выбирается по длине секрета).
+     */
+    SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    String getSigningKeyId() {
+        return signingKeyId;
+    }
+
+    Key getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * Публичные ключи проверки в формате JWKS (JSON).
+     */
+    String getJwks() {
+        return jwks;
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        if (header.getAlgorithm() != null && header.getAlgorithm().startsWith("HS")) {
+            if (hmacKey == null) {
+                throw new UnsupportedJwtException("HMAC signed JWT tokens are not accepted");
+            }
+            return hmacKey;
+        }
+
+        Key key = header.getKeyId() != null ? verificationKeys.get(header.getKeyId()) : null;
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown JWT key id: " + header.getKeyId());
+        }
+        return key;
+    }
+
+    private static SignatureAlgorithm resolveAlgorithm(String name) {
+        return switch (name) {
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException("Unsupported JWT signing algorithm: " + name);
+        };
+    }
+
+    private static PublicJwk<?> toJwk(String id, PublicKey key) {
+        var builder = Jwks.builder().key(key).publicKeyUse("sig");
+        return StringUtils.hasText(id) ? builder.id(id).build() : builder.idFromThumbprint().build();
+    }
+
+    private static PublicKey decodePublicKey(SignatureAlgorithm algorithm, String value) {
+        try {
+            return keyFactory(algorithm).generatePublic(new X509EncodedKeySpec(decodePem(value)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid JWT public key", e);
+        }
+    }
+
+    private static PrivateKey decodePrivateKey(SignatureAlgorithm algorithm, String value) {
+        try {
+            return keyFactory(algorithm).generatePrivate(new PKCS8EncodedKeySpec(decodePem(value)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid JWT private key", e);
+        }
+    }
+
+    private static KeyFactory keyFactory(SignatureAlgorithm algorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(algorithm == Jwts.SIG.ES256 ? "EC" : "EdDSA");
+    }
+
+    private static byte[] decodePem(String value) {
+        if (!StringUtils.hasText(value)) {
+            throw new IllegalArgumentException("Key is empty");
+        }
+        String base64 = value.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -1,16 +1,24 @@
 package com.nastian.bankcards.security;
 
 import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.entity.UserRole;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.MalformedJwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.security.PrivateKey;
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * Провайдер для работы с JWT токенами.
@@ -18,25 +26,42 @@ import java.util.Date;
  * Предоставляет методы для:
  * <ul>
  *   <li>Генерации токена на основе аутентификации</li>
- *   <li>Извлечения данных из токена (username, userId)</li>
+ *   <li>Извлечения данных из токена (username, userId, роль, версия)</li>
  *   <li>Валидации токена</li>
+ *   <li>Извлечения токена из заголовка запроса</li>
+ *   <li>Публикации ключей проверки (JWKS)</li>
  * </ul>
+ * Парсер создается один раз и переиспользуется: он неизменяем и потокобезопасен.
+ * Ключ проверки выбирается по заголовку токена через {@link JwtKeyRing},
+ * что позволяет вращать асимметричные ключи без перезапуска клиентов.
  */
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    static final String CLAIM_USER_ID = "userId";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
     private final JwtProperties jwtProperties;
-    private final SecretKey key;
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
 
     public JwtTokenProvider(JwtProperties jwtProperties) {
         this.jwtProperties = jwtProperties;
-        this.key = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+        this.keyRing = JwtKeyRing.create(jwtProperties);
+        this.parser = Jwts.parser()
+                .keyLocator(keyRing)
+                .build();
     }
 
     /**
      * Генерация JWT токена для аутентифицированного пользователя.
+     * <p>
+     * Помимо username токен содержит ID, роль и версию токенов пользователя,
+     * чтобы фильтр мог восстановить principal без обращения к БД,
+     * и уникальный идентификатор (jti) для точечного отзыва.
      *
      * @param authentication объект аутентификации
      * @return JWT токен
@@ -47,15 +72,43 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtProperties.getExpiration());
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (keyRing.getSigningKeyId() != null) {
+            builder.header().keyId(keyRing.getSigningKeyId());
+        }
+
+        return sign(builder
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
-                .claim("userId", userDetails.getId())
+                .claim(CLAIM_USER_ID, userDetails.getId())
+                .claim(CLAIM_ROLE, userDetails.getRole().name())
+                .claim(CLAIM_TOKEN_VERSION, userDetails.getTokenVersion())
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(key)
+                .expiration(expiryDate))
                 .compact();
     }
 
+    private JwtBuilder sign(JwtBuilder builder) {
+        if (keyRing.getAlgorithm() == null) {
+            return builder.signWith((SecretKey) keyRing.getSigningKey());
+        }
+        return builder.signWith((PrivateKey) keyRing.getSigningKey(), keyRing.getAlgorithm());
+    }
+
+    /**
+     * Проверка подписи и срока действия токена с извлечением claims.
+     * <p>
+     * Основной метод для фильтра: подпись проверяется ровно один раз за запрос.
+     *
+     * @param token JWT токен
+     * @return claims токена
+     * @throws JwtException если токен невалиден
+     * @throws IllegalArgumentException если токен пустой
+     */
+    public Claims parseAndVerify(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
     /**
      * Извлечение username из токена.
      *
@@ -63,12 +116,7 @@ public class JwtTokenProvider {
      * @return имя пользователя
      */
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseAndVerify(token).getSubject();
     }
 
     /**
@@ -78,12 +126,40 @@ public class JwtTokenProvider {
      * @return ID пользователя
      */
     public Long getUserIdFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("userId", Long.class);
+        return parseAndVerify(token).get(CLAIM_USER_ID, Long.class);
+    }
+
+    /**
+     * Восстановление principal из токена.
+     *
+     * @param token JWT токен
+     * @return данные пользователя без пароля
+     * @throws JwtException если токен невалиден или не содержит нужных claims
+     */
+    public CustomUserDetails getUserDetailsFromToken(String token) {
+        return getUserDetailsFromClaims(parseAndVerify(token));
+    }
+
+    /**
+     * Восстановление principal из уже проверенных claims.
+     *
+     * @param claims claims токена
+     * @return данные пользователя без пароля
+     * @throws JwtException если claims не содержат данных пользователя
+     */
+    public CustomUserDetails getUserDetailsFromClaims(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        if (userId == null || role == null || tokenVersion == null) {
+            throw new MalformedJwtException("JWT token does not contain user claims");
+        }
+
+        try {
+            return new CustomUserDetails(userId, claims.getSubject(), UserRole.valueOf(role), tokenVersion);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("JWT token contains unknown role: " + role);
+        }
     }
 
     /**
@@ -94,14 +170,36 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
+            parseAndVerify(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Публичные ключи проверки подписи в формате JWKS.
+     * <p>
+     * При подписи HMAC набор пуст: секрет не публикуется.
+     *
+     * @return JSON-документ JWKS
+     */
+    public String getJwks() {
+        return keyRing.getJwks();
+    }
+
+    /**
+     * Извлечение JWT токена из заголовка Authorization.
+     *
+     * @param request HTTP-запрос
+     * @return токен или null
+     */
+    public String resolveToken(HttpServletRequest request) {
+        String bearerToken = request.getHeader(jwtProperties.getHeader());
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(jwtProperties.getPrefix())) {
+            return bearerToken.substring(jwtProperties.getPrefix().length());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,251 @@
+package com.nastian.bankcards.security;
+
+import com.nastian.bankcards.config.LoginThrottleProperties;
+import com.nastian.bankcards.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничение попыток входа по username и IP-адресу.
+ * <p>
+ * Каждая попытка входа стоит проверки BCrypt, поэтому перебор паролей
+ * одновременно является CPU-атакой. Попытки сверх лимита отклоняются
+ * до аутентификации с {@link TooManyRequestsException} (HTTP 429).
+ * Попытка учитывается до проверки пароля (иначе параллельный всплеск прошел бы
+ * лимит целиком) и снимается после успешного входа: в лимит идут только неудачные
+ * попытки, и клиенты за общим NAT не упираются в лимит IP обычными входами.
+ * <p>
+ * Счетчики хранятся в таблицах фиксированного размера без блокировок:
+ * <ul>
+ *   <li>Каждый ключ отображается на ячейку в двух строках таблицы (count-min),
+ *       оценка — минимум по строкам, поэтому коллизии только завышают счетчик</li>
+ *   <li>Ячейка — одно long-значение: номер окна, счетчик текущего и предыдущего окна;
+ *       обновление выполняется через CAS. Счетчик сначала увеличивается, затем проверяется:
+ *       попытка сверх лимита откатывается, поэтому одновременные попытки не проходят лимит</li>
+ *   <li>Скользящее окно приближается взвешенной суммой предыдущего и текущего окна</li>
+ *   <li>Память ограничена {@code security.login-throttle.slots}; устаревшие ячейки
+ *       обнуляются при следующем обращении, отдельная очистка не нужна</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class LoginAttemptLimiter {
+
+    private static final int ROWS = 2;
+    private static final int MAX_COUNT = 0xFFFF;
+
+    private final LoginThrottleProperties properties;
+    private final LongSupplier clock;
+    private final SlidingWindowCounter usernames;
+    private final SlidingWindowCounter addresses;
+
+    @Autowired
+    public LoginAttemptLimiter(LoginThrottleProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    LoginAttemptLimiter(LoginThrottleProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.usernames = new SlidingWindowCounter(properties.getSlots(), properties.getWindow());
+        this.addresses = new SlidingWindowCounter(properties.getSlots(), properties.getWindow());
+    }
+
+    /**
+     * Учет попытки входа перед проверкой пароля.
+     *
+     * @param username имя пользователя из запроса
+     * @param address IP-адрес клиента
+     * @throws TooManyRequestsException если лимит попыток для username или IP исчерпан
+     */
+    public void recordAttempt(String username, String address) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        if (!addresses.tryAcquire(address, properties.getMaxAttemptsPerIp(), now)) {
+            throw tooManyAttempts("address", address, now);
+        }
+        if (!usernames.tryAcquire(username.toLowerCase(Locale.ROOT), properties.getMaxAttemptsPerUsername(), now)) {
+            addresses.release(address, now);
+            throw tooManyAttempts("username", address, now);
+        }
+    }
+
+    /**
+     * Снятие попытки после успешного входа: успешные входы не расходуют лимит.
+     *
+     * @param username имя пользователя из запроса
+     * @param address IP-адрес клиента
+     */
+    public void recordSuccess(String username, String address) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        addresses.release(address, now);
+        usernames.release(username.toLowerCase(Locale.ROOT), now);
+    }
+
+    /**
+     * Отказ по лимиту. Имя пользователя из запроса не пишется в лог, сообщение
+     * на уровне DEBUG: при переборе паролей отказов столько же, сколько запросов.
+     */
+    private TooManyRequestsException tooManyAttempts(String limit, String address, long now) {
+        log.debug("Login attempt limit per {} exceeded from {}", limit, address);
+        long retryAfterMillis = properties.getWindow() - now % properties.getWindow();
+        return new TooManyRequestsException("Too many login attempts, try again later",
+                Math.max(1, (retryAfterMillis + 999) / 1000));
+    }
+
+    /**
+     * Таблица счетчиков со скользящим окном.
+     * <p>
+     * Формат ячейки: старшие 32 бита — номер окна, далее 16 бит — счетчик
+     * текущего окна, младшие 16 бит — счетчик предыдущего окна.
+     */
+    static final class SlidingWindowCounter {
+
+        private final AtomicLongArray cells;
+        private final int mask;
+        private final long window;
+
+        SlidingWindowCounter(int slots, long window) {
+            int size = Integer.highestOneBit(Math.max(2, slots - 1) << 1);
+            this.cells = new AtomicLongArray(size * ROWS);
+            this.mask = size - 1;
+            this.window = window;
+        }
+
+        /**
+         * Учет события, если с ним оценка за окно не превышает лимит.
+         * <p>
+         * Счетчики увеличиваются до проверки; если оценка с учетом события больше лимита,
+         * увеличение откатывается. Одновременные вызовы видят увеличения друг друга,
+         * поэтому пропущенных событий не больше лимита.
+         *
+         * @param key ключ
+         * @param limit лимит событий за окно
+         * @param now текущее время в миллисекундах
+         * @return false если лимит исчерпан (событие не учитывается)
+         */
+        boolean tryAcquire(String key, int limit, long now) {
+            long hash = hash(key);
+            int first = first(hash);
+            int second = second(hash);
+            int windowId = (int) (now / window);
+            long elapsed = now % window;
+
+            long estimate = Math.min(
+                    estimate(increment(first, windowId), elapsed),
+                    estimate(increment(second, windowId), elapsed));
+            if (estimate > limit) {
+                decrement(first, windowId);
+                decrement(second, windowId);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Отмена ранее учтенного события ключа.
+         *
+         * @param key ключ
+         * @param now текущее время в миллисекундах
+         */
+        void release(String key, long now) {
+            long hash = hash(key);
+            int windowId = (int) (now / window);
+            decrement(first(hash), windowId);
+            decrement(second(hash), windowId);
+        }
+
+        private int first(long hash) {
+            return (int) hash & mask;
+        }
+
+        private int second(long hash) {
+            return (mask + 1) + ((int) (hash >>> 32) & mask);
+        }
+
+        private long increment(int cell, int windowId) {
+            long current;
+            long updated;
+            do {
+                current = cells.get(cell);
+                long rolled = rollover(current, windowId);
+                int count = Math.min(MAX_COUNT, currentCount(rolled) + 1);
+                updated = pack(windowId, count, previousCount(rolled));
+            } while (!cells.compareAndSet(cell, current, updated));
+            return updated;
+        }
+
+        /**
+         * Уменьшение счетчика текущего окна, а если он пуст (окно сменилось
+         * после учета события) — предыдущего.
+         */
+        private void decrement(int cell, int windowId) {
+            long current;
+            long updated;
+            do {
+                current = cells.get(cell);
+                long rolled = rollover(current, windowId);
+                int count = currentCount(rolled);
+                int previous = previousCount(rolled);
+                if (count > 0) {
+                    updated = pack(windowId, count - 1, previous);
+                } else if (previous > 0) {
+                    updated = pack(windowId, 0, previous - 1);
+                } else {
+                    return;
+                }
+            } while (!cells.compareAndSet(cell, current, updated));
+        }
+
+        private long estimate(long state, long elapsed) {
+            return currentCount(state) + previousCount(state) * (window - elapsed) / window;
+        }
+
+        private static long rollover(long state, int windowId) {
+            int stamp = (int) (state >>> 32);
+            if (stamp == windowId) {
+                return state;
+            }
+            if (stamp == windowId - 1) {
+                return pack(windowId, 0, currentCount(state));
+            }
+            return pack(windowId, 0, 0);
+        }
+
+        private static long pack(int windowId, int current, int previous) {
+            return ((long) windowId << 32) | ((long) current << 16) | previous;
+        }
+
+        private static int currentCount(long state) {
+            return (int) ((state >>> 16) & MAX_COUNT);
+        }
+
+        private static int previousCount(long state) {
+            return (int) (state & MAX_COUNT);
+        }
+
+        private static long hash(String key) {
+            long h = 0xCBF29CE484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.nastian.bankcards.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nastian.bankcards.config.RateLimitProperties;
+import com.nastian.bankcards.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Фильтр ограничения частоты запросов аутентифицированных пользователей.
+ * <p>
+ * Выполняется после {@link JwtAuthenticationFilter}, ключ — id пользователя
+ * из {@link CustomUserDetails}. Бюджеты задаются отдельно для групп:
+ * <ul>
+ *   <li>{@code /user/transfers} — переводы</li>
+ *   <li>{@code GET /user/cards/**} — чтение карт</li>
+ *   <li>{@code /admin/**} — администрирование</li>
+ * </ul>
+ * Остальные запросы и анонимные запросы не ограничиваются.
+ * <p>
+ * Корзина реализована по алгоритму GCRA (эквивалент token bucket): состояние
+ * пользователя — одно long-значение (теоретическое время следующего запроса),
+ * обновляемое через CAS. У каждого пользователя своя корзина в ограниченном
+ * по размеру кэше. В ответ добавляются
+ * заголовки {@code RateLimit-Limit}, {@code RateLimit-Remaining}, {@code RateLimit-Reset};
+ * при превышении возвращается 429 с {@code Retry-After}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final String ALREADY_FILTERED_ATTRIBUTE = RateLimitFilter.class.getName() + ALREADY_FILTERED_SUFFIX;
+    private static final String[] DECIMALS = new String[1024];
+
+    static {
+        for (int i = 0; i < DECIMALS.length; i++) {
+            DECIMALS[i] = Integer.toString(i);
+        }
+    }
+
+    /**
+     * Группы эндпоинтов с отдельными бюджетами.
+     */
+    enum Group {
+        TRANSFERS,
+        CARDS_READ,
+        ADMIN
+    }
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoClock;
+    private final long origin;
+    private final GcraTable[] tables = new GcraTable[Group.values().length];
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, LongSupplier nanoClock) {
+        this.enabled = properties.isEnabled();
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        tables[Group.TRANSFERS.ordinal()] = new GcraTable(properties.getMaxKeys(), properties.getTransfers());
+        tables[Group.CARDS_READ.ordinal()] = new GcraTable(properties.getMaxKeys(), properties.getCardsRead());
+        tables[Group.ADMIN.ordinal()] = new GcraTable(properties.getMaxKeys(), properties.getAdmin());
+    }
+
+    /**
+     * Имя атрибута вычисляется один раз, а не конкатенацией на каждый запрос.
+     */
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return ALREADY_FILTERED_ATTRIBUTE;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Group group = enabled ? resolveGroup(request) : null;
+        Authentication authentication = group != null
+                ? SecurityContextHolder.getContext().getAuthentication()
+                : null;
+
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails principal)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        GcraTable table = tables[group.ordinal()];
+        long now = (nanoClock.getAsLong() - origin) / 1000;
+        long result = table.acquire(principal.getId(), now);
+
+        response.setHeader(LIMIT_HEADER, decimal(table.capacity));
+        if (result >= 0) {
+            response.setHeader(REMAINING_HEADER, decimal(table.remaining(result, now)));
+            response.setHeader(RESET_HEADER, decimal(toSeconds(result - now)));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        logger.debug("Rate limit exceeded for user " + principal.getId() + " in group " + group);
+        long retryAfter = toSeconds(-result);
+        response.setHeader(REMAINING_HEADER, decimal(0));
+        response.setHeader(RESET_HEADER, decimal(retryAfter));
+        response.setHeader(HttpHeaders.RETRY_AFTER, decimal(retryAfter));
+        writeTooManyRequests(request, response);
+    }
+
+    /**
+     * Определение группы по методу и пути запроса.
+     *
+     * @return группа или null, если запрос не ограничивается
+     */
+    static Group resolveGroup(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int offset = request.getServletContext().getContextPath().length();
+
+        if (matches(uri, offset, "/admin")) {
+            return Group.ADMIN;
+        }
+        if (matches(uri, offset, "/user/transfers")) {
+            return Group.TRANSFERS;
+        }
+        if ("GET".equals(request.getMethod()) && matches(uri, offset, "/user/cards")) {
+            return Group.CARDS_READ;
+        }
+        return null;
+    }
+
+    private static boolean matches(String uri, int offset, String prefix) {
+        if (!uri.startsWith(prefix, offset)) {
+            return false;
+        }
+        int end = offset + prefix.length();
+        return uri.length() == end || uri.charAt(end) == '/';
+    }
+
+    private static long toSeconds(long micros) {
+        return (micros + MICROS_PER_SECOND - 1) / MICROS_PER_SECOND;
+    }
+
+    private static String decimal(long value) {
+        return value < DECIMALS.length ? DECIMALS[(int) value] : Long.toString(value);
+    }
+
+    private void writeTooManyRequests(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message("Rate limit exceeded, try again later")
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    /**
+     * Таблица корзин одной группы.
+     * <p>
+     * Значение — теоретическое время следующего запроса (TAT) в микросекундах, ключ —
+     * id пользователя, так что разные пользователи никогда не делят корзину.
+     * Запись удаляется, если к ней не обращались дольше, чем заполняется корзина:
+     * к этому моменту TAT уже в прошлом, и новая запись эквивалентна удаленной.
+     * Число записей ограничено {@code security.rate-limit.max-keys}; при переполнении
+     * вытесняются редко используемые ключи, и их корзина начинается заново.
+     */
+    static final class GcraTable {
+
+        private final Cache<Long, AtomicLong> buckets;
+        private final int capacity;
+        private final long interval;
+        private final long tolerance;
+
+        GcraTable(int maxKeys, RateLimitProperties.Budget budget) {
+            this.capacity = budget.getCapacity();
+            this.interval = Math.max(1, Math.round(MICROS_PER_SECOND / budget.getRefillPerSecond()));
+            this.tolerance = interval * capacity;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(Math.multiplyExact(tolerance, 1000L)))
+                    .build();
+        }
+
+        /**
+         * Попытка взять один токен из корзины ключа.
+         *
+         * @param key ключ (id пользователя)
+         * @param now текущее время в микросекундах
+         * @return новое значение TAT, если запрос разрешен; иначе отрицательное
+         *         время ожидания в микросекундах
+         */
+        long acquire(long key, long now) {
+            AtomicLong cell = buckets.get(key, k -> new AtomicLong());
+
+            while (true) {
+                long tat = cell.get();
+                long next = Math.max(tat, now) + interval;
+
+                if (next - now > tolerance) {
+                    return -(next - now - tolerance);
+                }
+                if (cell.compareAndSet(tat, next)) {
+                    return next;
+                }
+            }
+        }
+
+        /**
+         * Оставшееся количество токенов после запроса.
+         */
+        long remaining(long tat, long now) {
+            return (tolerance - (tat - now)) / interval;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.nastian.bankcards.security;
+
+import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.entity.RevokedToken;
+import com.nastian.bankcards.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Реестр отозванных access токенов.
+ * <p>
+ * Отозванные jti хранятся в таблице revoked_tokens, а в памяти каждого узла
+ * поддерживается Bloom-фильтр по ним:
+ * <ul>
+ *   <li>Для неотозванного токена (основной случай) проверка не обращается к БД</li>
+ *   <li>Попадание в фильтр подтверждается запросом к БД (ложные срабатывания)</li>
+ *   <li>Отзывы на этом узле попадают в фильтр сразу, с других узлов —
+ *       при следующем опросе ({@code jwt.revocation.poll-interval})</li>
+ *   <li>Фильтр периодически перестраивается без истекших записей
+ *       ({@code jwt.revocation.rebuild-interval})</li>
+ * </ul>
+ * Пока фильтр не построен, каждая проверка выполняется по БД.
+ * Отзыв, сделанный на этом узле во время перестройки, может не попасть
+ * в новый фильтр — его добавит следующий опрос.
+ */
+@Slf4j
+@Component
+public class RevokedTokenRegistry {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtProperties.Revocation settings;
+    private volatile BloomFilter filter;
+    private volatile LocalDateTime watermark;
+
+    public RevokedTokenRegistry(RevokedTokenRepository revokedTokenRepository, JwtProperties jwtProperties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.settings = jwtProperties.getRevocation();
+    }
+
+    /**
+     * Проверка, отозван ли токен.
+     *
+     * @param jti идентификатор токена
+     * @return true если токен отозван
+     */
+    public boolean isRevoked(String jti) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsByJti(jti);
+    }
+
+    /**
+     * Отзыв токена до окончания срока его действия.
+     *
+     * @param jti идентификатор токена
+     * @param expiresAt срок действия токена
+     */
+    @Transactional
+    public void revoke(String jti, Date expiresAt) {
+        revokedTokenRepository.insertIfAbsent(jti,
+                LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(jti);
+        }
+    }
+
+    /**
+     * Добавление в фильтр отзывов, сделанных на других узлах.
+     * <p>
+     * Опрашиваются записи начиная с последнего известного времени отзыва
+     * за вычетом {@code poll-overlap}: повторное добавление безопасно, а запас
+     * покрывает транзакции, закоммиченные позже своего времени вставки.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:5000}")
+    public void poll() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+
+        LocalDateTime latest = watermark;
+        List<RevokedToken> revoked = latest != null
+                ? revokedTokenRepository.findByRevokedAtAfter(latest.minus(Duration.ofMillis(settings.getPollOverlap())))
+                : revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+        revoked.forEach(token -> current.put(token.getJti()));
+        advanceWatermark(revoked);
+    }
+
+    /**
+     * Полная перестройка фильтра по неистекшим отзывам и удаление истекших записей.
+     * <p>
+     * Первый запуск выполняется при старте приложения.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:3600000}")
+    @Transactional
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+
+        BloomFilter rebuilt = BloomFilter.create(
+                Math.max(settings.getExpectedInsertions(), active.size() * 2L), settings.getFalsePositiveRate());
+        active.forEach(token -> rebuilt.put(token.getJti()));
+        filter = rebuilt;
+        advanceWatermark(active);
+
+        log.debug("Revocation filter rebuilt: {} active entries, {} expired entries purged", active.size(), purged);
+    }
+
+    private void advanceWatermark(List<RevokedToken> revoked) {
+        revoked.stream()
+                .map(RevokedToken::getRevokedAt)
+                .max(LocalDateTime::compareTo)
+                .filter(latest -> watermark == null || latest.isAfter(watermark))
+                .ifPresent(latest -> watermark = latest);
+    }
+}
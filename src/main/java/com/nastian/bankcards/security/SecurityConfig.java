@@ -1,19 +1,32 @@
 package com.nastian.bankcards.security;
 
-import com.nastian.bankcards.config.JwtProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nastian.bankcards.config.BankMetrics;
+import com.nastian.bankcards.config.MetricsScrapeProperties;
+import com.nastian.bankcards.config.PasswordHashingProperties;
+import com.nastian.bankcards.config.RateLimitProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /**
  * Конфигурация безопасности приложения.
@@ -21,9 +34,14 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * Настраивает:
  * <ul>
  *   <li>Stateless сессии (JWT)</li>
- *   <li>Публичные эндпоинты (/auth/**, /swagger-ui/**)</li>
+ *   <li>Публичные эндпоинты (/auth/**, /swagger-ui/**, /.well-known/jwks.json,
+ *       /actuator/health для проб)</li>
+ *   <li>Отдельную цепочку для /actuator/**: метрики доступны только сборщику
+ *       по HTTP Basic ({@code metrics.scrape.*}, роль METRICS)</li>
  *   <li>Доступ по ролям (ADMIN для /admin/**, USER/ADMIN для /user/**)</li>
  *   <li>JWT фильтр для аутентификации</li>
+ *   <li>Ограничение частоты запросов пользователя после аутентификации</li>
+ *   <li>Хэширование паролей в выделенном ограниченном пуле</li>
  * </ul>
  */
 
@@ -32,21 +50,29 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableMethodSecurity
 public class SecurityConfig {
 
-    private final CustomUserDetailsService userDetailsService;
+    static final String METRICS_ROLE = "METRICS";
+
     private final JwtTokenProvider tokenProvider;
-    private final JwtProperties jwtProperties;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final BankMetrics metrics;
 
-    public SecurityConfig(CustomUserDetailsService userDetailsService,
-                          JwtTokenProvider tokenProvider,
-                          JwtProperties jwtProperties) {
-        this.userDetailsService = userDetailsService;
+    public SecurityConfig(JwtTokenProvider tokenProvider,
+                          VerifiedTokenCache verifiedTokenCache,
+                          TokenVersionRegistry tokenVersionRegistry,
+                          RevokedTokenRegistry revokedTokenRegistry,
+                          BankMetrics metrics) {
         this.tokenProvider = tokenProvider;
-        this.jwtProperties = jwtProperties;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.metrics = metrics;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties passwordHashingProperties) {
+        return BoundedPasswordEncoder.create(passwordHashingProperties);
     }
 
     @Bean
@@ -56,17 +82,45 @@ public class SecurityConfig {
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(tokenProvider, userDetailsService, jwtProperties);
+        return new JwtAuthenticationFilter(tokenProvider, verifiedTokenCache, tokenVersionRegistry,
+                revokedTokenRegistry, metrics);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties rateLimitProperties, ObjectMapper objectMapper) {
+        return new RateLimitFilter(rateLimitProperties, objectMapper);
+    }
+
+    /**
+     * Цепочка для Actuator: проверяется раньше основной, JWT не используется.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http,
+                                                   MetricsScrapeProperties scrapeProperties) throws Exception {
+        http
+                .securityMatcher("/actuator/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .anyRequest().hasRole(METRICS_ROLE)
+                )
+                .httpBasic(Customizer.withDefaults())
+                .authenticationManager(scrapeAuthenticationManager(scrapeProperties));
+
+        return http.build();
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, RateLimitFilter rateLimitFilter) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/test").permitAll()
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
                         .requestMatchers("/swagger-ui.html").permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/webjars/**").permitAll()
@@ -77,8 +131,44 @@ public class SecurityConfig {
                         .requestMatchers("/user/**").hasAnyRole("USER", "ADMIN")
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Аутентификация сборщика метрик; без настроенного пароля любые учетные данные отклоняются.
+     * <p>
+     * Пароль сравнивается с настроенным за постоянное время (по SHA-256), без BCrypt:
+     * сбор метрик не занимает пул хэширования паролей входа и не получает 429 при его перегрузке.
+     */
+    static AuthenticationManager scrapeAuthenticationManager(MetricsScrapeProperties properties) {
+        if (!StringUtils.hasText(properties.getPassword())) {
+            return authentication -> {
+                throw new BadCredentialsException("Metrics scrape credentials are not configured");
+            };
+        }
+
+        byte[] username = sha256(properties.getUsername());
+        byte[] password = sha256(properties.getPassword());
+        return authentication -> {
+            boolean usernameMatches = MessageDigest.isEqual(username, sha256(authentication.getName()));
+            boolean passwordMatches = MessageDigest.isEqual(password,
+                    sha256(String.valueOf(authentication.getCredentials())));
+            if (!usernameMatches || !passwordMatches) {
+                throw new BadCredentialsException("Bad metrics scrape credentials");
+            }
+            return UsernamePasswordAuthenticationToken.authenticated(authentication.getName(), null,
+                    AuthorityUtils.createAuthorityList("ROLE_" + METRICS_ROLE));
+        };
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.nastian.bankcards.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.repository.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Реестр актуальных версий токенов пользователей.
+ * <p>
+ * Каждый JWT содержит версию токенов пользователя на момент выдачи.
+ * При изменении роли или удалении пользователя версия меняется, и все ранее
+ * выданные токены перестают приниматься.
+ * <p>
+ * Версии кэшируются в памяти, поэтому проверка токена не требует запроса к БД
+ * на каждый вызов API. Изменения, сделанные на этом узле, применяются после
+ * коммита транзакции (при откате кэш не меняется), изменения с других узлов —
+ * не позже чем через {@code jwt.version-cache-ttl}.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> versions;
+
+    public TokenVersionRegistry(UserRepository userRepository, JwtProperties jwtProperties) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jwtProperties.getVersionCacheTtl()))
+                .maximumSize(jwtProperties.getVersionCacheMaxSize())
+                .build();
+    }
+
+    /**
+     * Проверка, что токен выдан для актуальной версии пользователя.
+     *
+     * @param userId ID пользователя из токена
+     * @param tokenVersion версия из токена
+     * @return true если версия совпадает и пользователь не удален
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        int current = versions.get(userId, id -> userRepository.findTokenVersionById(id).orElse(REVOKED));
+        return current != REVOKED && current == tokenVersion;
+    }
+
+    /**
+     * Фиксация новой версии токенов пользователя.
+     *
+     * @param userId ID пользователя
+     * @param tokenVersion новая версия
+     */
+    public void update(Long userId, int tokenVersion) {
+        afterCommit(() -> versions.put(userId, tokenVersion));
+    }
+
+    /**
+     * Отзыв всех токенов пользователя (например, после удаления).
+     *
+     * @param userId ID пользователя
+     */
+    public void revoke(Long userId) {
+        afterCommit(() -> versions.put(userId, REVOKED));
+    }
+
+    /**
+     * Выполнение после коммита текущей транзакции, без транзакции — сразу.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
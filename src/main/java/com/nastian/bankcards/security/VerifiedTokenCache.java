@@ -0,0 +1,149 @@
+package com.nastian.bankcards.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nastian.bankcards.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш проверенных JWT токенов.
+ * <p>
+ * Клиенты повторно используют один и тот же токен для множества запросов,
+ * поэтому результат проверки подписи и разбора claims кэшируется:
+ * <ul>
+ *   <li>Ключ — SHA-256 от токена, сам токен в памяти не хранится</li>
+ *   <li>Запись живет ровно до {@code exp} токена</li>
+ *   <li>Размер ограничен {@code jwt.token-cache.max-size}</li>
+ *   <li>Невалидные токены не кэшируются</li>
+ * </ul>
+ * Проверка версии токенов пользователя выполняется фильтром на каждый запрос,
+ * поэтому отзыв токенов продолжает работать и для закэшированных записей.
+ * Попадания, промахи, вытеснения и размер публикуются в Micrometer
+ * как метрики {@code cache.*} с тегом {@code cache=jwt.verified-tokens}.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final JwtTokenProvider tokenProvider;
+    private final Cache<TokenDigest, Claims> cache;
+
+    @Autowired
+    public VerifiedTokenCache(JwtTokenProvider tokenProvider, JwtProperties jwtProperties) {
+        this(tokenProvider, jwtProperties, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(JwtTokenProvider tokenProvider, JwtProperties jwtProperties, Clock clock, Ticker ticker) {
+        this.tokenProvider = tokenProvider;
+        JwtProperties.TokenCache settings = jwtProperties.getTokenCache();
+        this.cache = settings.isEnabled()
+                ? Caffeine.newBuilder()
+                        .maximumSize(settings.getMaxSize())
+                        .expireAfter(new UntilTokenExpiration(clock))
+                        .ticker(ticker)
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    /**
+     * Проверка токена с использованием кэша.
+     *
+     * @param token JWT токен
+     * @return claims проверенного токена
+     * @throws io.jsonwebtoken.JwtException если токен невалиден
+     * @throws IllegalArgumentException если токен пустой
+     */
+    public Claims verify(String token) {
+        if (cache == null) {
+            return tokenProvider.parseAndVerify(token);
+        }
+        return cache.get(digest(token), key -> tokenProvider.parseAndVerify(token));
+    }
+
+    /**
+     * @return true если кэш включен
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Статистика попаданий и промахов.
+     *
+     * @return статистика кэша (пустая, если кэш выключен)
+     */
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    /**
+     * @return приблизительное количество записей в кэше
+     */
+    public long size() {
+        return cache != null ? cache.estimatedSize() : 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        }
+    }
+
+    private static TokenDigest digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    private record TokenDigest(long h1, long h2, long h3, long h4) {
+    }
+
+    private record UntilTokenExpiration(Clock clock) implements Expiry<TokenDigest, Claims> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - clock.millis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
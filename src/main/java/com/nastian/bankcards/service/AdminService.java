@@ -1,6 +1,9 @@
 package com.nastian.bankcards.service;
 
+import com.nastian.bankcards.dto.CardCursor;
 import com.nastian.bankcards.dto.CardRequest;
+import com.nastian.bankcards.dto.CardView;
+import com.nastian.bankcards.dto.TransferView;
 import com.nastian.bankcards.entity.Card;
 import com.nastian.bankcards.entity.CardStatus;
 import com.nastian.bankcards.entity.User;
@@ -8,12 +11,27 @@ import com.nastian.bankcards.entity.UserRole;
 import com.nastian.bankcards.exception.CardNotFoundException;
 import com.nastian.bankcards.exception.UserNotFoundException;
 import com.nastian.bankcards.repository.CardRepository;
+import com.nastian.bankcards.repository.TransferRepository;
 import com.nastian.bankcards.repository.UserRepository;
+import com.nastian.bankcards.security.CustomUserDetailsService;
+import com.nastian.bankcards.security.TokenVersionRegistry;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 /**
  * Сервис для административных операций.
  * <p>
@@ -21,22 +39,43 @@ import org.springframework.transaction.annotation.Transactional;
  * <ul>
  *   <li>Управления пользователями (просмотр, изменение роли, удаление)</li>
  *   <li>Управления картами (просмотр, создание, изменение статуса, удаление)</li>
+ *   <li>Выгрузки переводов за период</li>
  * </ul>
  * Все методы доступны только для пользователей с ролью ADMIN.
  */
 @Service
 public class AdminService {
 
+    /**
+     * Свойства пользователя, по которым разрешена сортировка, и соответствующие столбцы
+     * (нативный поиск сортируется по именам столбцов).
+     */
+    private static final Map<String, String> USER_SORT_COLUMNS = Map.of(
+            "id", "id",
+            "username", "username",
+            "email", "email",
+            "role", "role",
+            "createdAt", "created_at");
+
     private final UserRepository userRepository;
     private final CardRepository cardRepository;
+    private final TransferRepository transferRepository;
     private final CardService cardService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final CustomUserDetailsService userDetailsService;
 
     public AdminService(UserRepository userRepository,
                         CardRepository cardRepository,
-                        CardService cardService) {
+                        TransferRepository transferRepository,
+                        CardService cardService,
+                        TokenVersionRegistry tokenVersionRegistry,
+                        CustomUserDetailsService userDetailsService) {
         this.userRepository = userRepository;
         this.cardRepository = cardRepository;
+        this.transferRepository = transferRepository;
         this.cardService = cardService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.userDetailsService = userDetailsService;
     }
 
     /**
@@ -48,12 +87,39 @@ public class AdminService {
      */
     @Transactional(readOnly = true)
     public Page<User> getAllUsers(String search, Pageable pageable) {
-        if (search != null && !search.trim().isEmpty()) {
-            return userRepository.searchUsers(search.trim(), pageable);
+        String normalized = CardService.normalizeSearch(search);
+        if (normalized != null) {
+            return userRepository.searchUsers(containsPattern(normalized), toUserColumnSort(pageable));
         }
         return userRepository.findAll(pageable);
     }
 
+    /**
+     * Получение пользователей без подсчета общего количества.
+     *
+     * @param search поисковый запрос (по username или email)
+     * @param pageable параметры пагинации
+     * @return срез с пользователями
+     */
+    @Transactional(readOnly = true)
+    public Slice<User> getAllUsersSlice(String search, Pageable pageable) {
+        String normalized = CardService.normalizeSearch(search);
+        if (normalized != null) {
+            return userRepository.searchUsersSlice(containsPattern(normalized), toUserColumnSort(pageable));
+        }
+        return userRepository.findSliceBy(pageable);
+    }
+
+    /**
+     * Приблизительное количество пользователей по статистике PostgreSQL.
+     *
+     * @return оценка или null, если статистика еще не собрана
+     */
+    @Transactional(readOnly = true)
+    public Long estimateUserCount() {
+        return toEstimate(userRepository.estimateCount());
+    }
+
     /**
      * Получение пользователя по ID.
      *
@@ -69,6 +135,9 @@ public class AdminService {
 
     /**
      * Изменение роли пользователя.
+     * <p>
+     * Увеличивает версию токенов пользователя, поэтому JWT со старой ролью
+     * перестают приниматься, и удаляет пользователя из кэша UserDetails.
      *
      * @param userId ID пользователя
      * @param newRole новая роль (USER или ADMIN)
@@ -76,23 +145,30 @@ public class AdminService {
      */
     @Transactional
     public User updateUserRole(Long userId, UserRole newRole) {
-        User user = getUserById(userId);
+        User user = userRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
         user.setRole(newRole);
-        return userRepository.save(user);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User saved = userRepository.save(user);
+        tokenVersionRegistry.update(userId, saved.getTokenVersion());
+        userDetailsService.evict(saved.getUsername());
+        return saved;
     }
 
     /**
      * Удаление пользователя.
+     * <p>
+     * Все выданные пользователю JWT отзываются, запись удаляется из кэша UserDetails.
      *
      * @param userId ID пользователя
      * @throws UserNotFoundException если пользователь не найден
      */
     @Transactional
     public void deleteUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new UserNotFoundException(userId);
-        }
-        userRepository.deleteById(userId);
+        User user = getUserById(userId);
+        userRepository.delete(user);
+        tokenVersionRegistry.revoke(userId);
+        userDetailsService.evict(user.getUsername());
     }
 
     /**
@@ -103,11 +179,44 @@ public class AdminService {
      * @return страница с картами
      */
     @Transactional(readOnly = true)
-    public Page<Card> getAllCards(String search, Pageable pageable) {
-        if (search != null && !search.trim().isEmpty()) {
-            return cardRepository.findAllByCardNumberMaskedContaining(search.trim(), pageable);
-        }
-        return cardRepository.findAll(pageable);
+    public Page<CardView> getAllCards(String search, Pageable pageable) {
+        return cardRepository.findAllViews(CardService.searchPattern(search), pageable);
+    }
+
+    /**
+     * Получение всех карт без подсчета общего количества.
+     *
+     * @param search маска номера карты
+     * @param pageable параметры пагинации
+     * @return срез с картами
+     */
+    @Transactional(readOnly = true)
+    public Slice<CardView> getAllCardsSlice(String search, Pageable pageable) {
+        return cardRepository.findAllViewSlice(CardService.searchPattern(search), pageable);
+    }
+
+    /**
+     * Приблизительное количество карт по статистике PostgreSQL.
+     *
+     * @return оценка или null, если статистика еще не собрана
+     */
+    @Transactional(readOnly = true)
+    public Long estimateCardCount() {
+        return toEstimate(cardRepository.estimateCount());
+    }
+
+    /**
+     * Получение всех карт после курсора (keyset pagination).
+     *
+     * @param search маска номера карты
+     * @param cursor курсор последней карты предыдущей страницы
+     * @param size размер страницы
+     * @return срез с картами
+     */
+    @Transactional(readOnly = true)
+    public Slice<CardView> getAllCards(String search, CardCursor cursor, int size) {
+        return CardService.toSlice(cardRepository.findAllAfter(CardService.searchPattern(search),
+                cursor.createdAt(), cursor.id(), Limit.of(size + 1)), size);
     }
 
     /**
@@ -120,15 +229,37 @@ public class AdminService {
      * @throws UserNotFoundException если пользователь не найден
      */
     @Transactional(readOnly = true)
-    public Page<Card> getUserCards(Long userId, String search, Pageable pageable) {
-        if (!userRepository.existsById(userId)) {
-            throw new UserNotFoundException(userId);
-        }
+    public Page<CardView> getUserCards(Long userId, String search, Pageable pageable) {
+        return cardService.getUserCards(userId, search, pageable);
+    }
 
-        if (search != null && !search.trim().isEmpty()) {
-            return cardRepository.findByUserIdAndCardNumberMaskedContaining(userId, search.trim(), pageable);
-        }
-        return cardRepository.findByUserId(userId, pageable);
+    /**
+     * Получение карт конкретного пользователя без подсчета общего количества.
+     *
+     * @param userId ID пользователя
+     * @param search маска номера карты
+     * @param pageable параметры пагинации
+     * @return срез с картами
+     * @throws UserNotFoundException если пользователь не найден
+     */
+    @Transactional(readOnly = true)
+    public Slice<CardView> getUserCardsSlice(Long userId, String search, Pageable pageable) {
+        return cardService.getUserCardsSlice(userId, search, pageable);
+    }
+
+    /**
+     * Получение карт конкретного пользователя после курсора (keyset pagination).
+     *
+     * @param userId ID пользователя
+     * @param search маска номера карты
+     * @param cursor курсор последней карты предыдущей страницы
+     * @param size размер страницы
+     * @return срез с картами
+     * @throws UserNotFoundException если пользователь не найден
+     */
+    @Transactional(readOnly = true)
+    public Slice<CardView> getUserCards(Long userId, String search, CardCursor cursor, int size) {
+        return cardService.getUserCards(userId, search, cursor, size);
     }
 
     /**
@@ -177,4 +308,80 @@ public class AdminService {
         }
         cardRepository.deleteById(cardId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Обход переводов за период {@code [from, to)} без загрузки всего периода в память.
+     * <p>
+     * Строки читаются из курсора порциями и передаются в {@code action} по одной,
+     * поэтому {@code action} вызывается внутри транзакции (например, пишет в ответ).
+     * Порядок переводов не гарантируется.
+     *
+     * @param from начало периода (включительно)
+     * @param to конец периода (не включительно)
+     * @param action обработчик каждого перевода
+     * @throws IllegalArgumentException если {@code from} не раньше {@code to}
+     */
+    @Transactional(readOnly = true)
+    public void forEachTransfer(LocalDateTime from, LocalDateTime to, Consumer<TransferView> action) {
+        validateTransferRange(from, to);
+        try (Stream<TransferView> transfers = transferRepository.streamByTimestampRange(from, to)) {
+            transfers.forEach(action);
+        }
+    }
+
+    /**
+     * Проверка периода выгрузки переводов до начала ответа: после первой строки
+     * статус ответа уже не изменить.
+     *
+     * @throws IllegalArgumentException если {@code from} не раньше {@code to}
+     */
+    public static void validateTransferRange(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+
+    /**
+     * reltuples равен -1, пока таблица не анализировалась (PostgreSQL 14+).
+     */
+    private static Long toEstimate(Long reltuples) {
+        return reltuples != null && reltuples >= 0 ? reltuples : null;
+    }
+
+    /**
+     * Шаблон LIKE для поиска подстроки без учета регистра.
+     * Символы {@code %}, {@code _} и {@code \} экранируются, чтобы ввод пользователя
+     * не превращался в шаблон (экранирующий символ LIKE в PostgreSQL по умолчанию — {@code \}).
+     */
+    static String containsPattern(String search) {
+        StringBuilder pattern = new StringBuilder(search.length() + 2).append('%');
+        for (char c : search.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    /**
+     * Перевод сортировки по свойствам {@link User} в сортировку по столбцам таблицы users.
+     *
+     * @throws IllegalArgumentException если свойство не поддерживается
+     */
+    static Pageable toUserColumnSort(Pageable pageable) {
+        if (pageable.getSort().isUnsorted()) {
+            return pageable;
+        }
+
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            String column = USER_SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            orders.add(order.withProperty(column));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+    }
+}
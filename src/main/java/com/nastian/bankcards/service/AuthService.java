@@ -2,22 +2,38 @@ package com.nastian.bankcards.service;
 
 import com.nastian.bankcards.dto.AuthRequest;
 import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.exception.InvalidTokenException;
+import com.nastian.bankcards.security.JwtTokenProvider;
+import com.nastian.bankcards.security.RevokedTokenRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 /**
  * Сервис для аутентификации и регистрации.
  * <p>
- * Делегирует выполнение операций UserService.
+ * Делегирует операции с пользователями UserService, а выдачу, ротацию
+ * и отзыв токенов — RefreshTokenService и RevokedTokenRegistry.
  */
 
 @Service
 public class AuthService {
 
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final JwtTokenProvider tokenProvider;
 
-    public AuthService(UserService userService) {
+    public AuthService(UserService userService,
+                       RefreshTokenService refreshTokenService,
+                       RevokedTokenRegistry revokedTokenRegistry,
+                       JwtTokenProvider tokenProvider) {
         this.userService = userService;
+        this.refreshTokenService = refreshTokenService;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.tokenProvider = tokenProvider;
     }
 
     /**
@@ -41,4 +57,47 @@ public class AuthService {
     public User findByUsername(String username) {
         return userService.findByUsername(username);
     }
-}
\ No newline at end of file
+
+    /**
+     * Выдача refresh токена после входа или регистрации.
+     *
+     * @param userId ID пользователя
+     * @return refresh токен
+     */
+    @Transactional
+    public String issueRefreshToken(Long userId) {
+        return refreshTokenService.issue(userId);
+    }
+
+    /**
+     * Обмен refresh токена на новый.
+     *
+     * @param refreshToken refresh токен
+     * @return владелец токена и новый refresh токен
+     * @throws InvalidTokenException если токен невалиден или уже использован
+     */
+    public RefreshTokenService.Rotation refresh(String refreshToken) {
+        return refreshTokenService.rotate(refreshToken);
+    }
+
+    /**
+     * Выход из системы: отзыв refresh токена и текущего access токена.
+     *
+     * @param refreshToken refresh токен
+     * @param accessToken access токен из заголовка (может отсутствовать)
+     */
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken);
+
+        if (StringUtils.hasText(accessToken)) {
+            try {
+                Claims claims = tokenProvider.parseAndVerify(accessToken);
+                if (claims.getId() != null) {
+                    revokedTokenRegistry.revoke(claims.getId(), claims.getExpiration());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // невалидный или истекший токен и так не принимается
+            }
+        }
+    }
+}
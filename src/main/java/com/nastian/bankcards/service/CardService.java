@@ -1,6 +1,9 @@
 package com.nastian.bankcards.service;
 
+import com.nastian.bankcards.config.BankMetrics;
+import com.nastian.bankcards.dto.CardCursor;
 import com.nastian.bankcards.dto.CardRequest;
+import com.nastian.bankcards.dto.CardView;
 import com.nastian.bankcards.entity.Card;
 import com.nastian.bankcards.entity.CardStatus;
 import com.nastian.bankcards.entity.User;
@@ -13,13 +16,19 @@ import com.nastian.bankcards.repository.UserRepository;
 import com.nastian.bankcards.util.CardNumberGenerator;
 import com.nastian.bankcards.util.CardNumberMasker;
 import com.nastian.bankcards.util.EncryptionUtil;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Сервис для операций с картами.
@@ -41,21 +50,26 @@ public class CardService {
     private final EncryptionUtil encryptionUtil;
     private final CardNumberGenerator cardNumberGenerator;
     private final CardNumberMasker cardNumberMasker;
+    private final BankMetrics metrics;
 
     public CardService(CardRepository cardRepository,
                        UserRepository userRepository,
                        EncryptionUtil encryptionUtil,
                        CardNumberGenerator cardNumberGenerator,
-                       CardNumberMasker cardNumberMasker) {
+                       CardNumberMasker cardNumberMasker,
+                       BankMetrics metrics) {
         this.cardRepository = cardRepository;
         this.userRepository = userRepository;
         this.encryptionUtil = encryptionUtil;
         this.cardNumberGenerator = cardNumberGenerator;
         this.cardNumberMasker = cardNumberMasker;
+        this.metrics = metrics;
     }
 
     /**
      * Создание новой карты для пользователя.
+     * <p>
+     * Время и исход записываются в таймер {@value BankMetrics#CARD_CREATION}.
      *
      * @param request данные карты (имя владельца, срок действия)
      * @param userId ID владельца
@@ -64,6 +78,18 @@ public class CardService {
      */
     @Transactional
     public Card createCard(CardRequest request, Long userId) {
+        Timer.Sample sample = metrics.start();
+        boolean success = false;
+        try {
+            Card card = newCard(request, userId);
+            success = true;
+            return card;
+        } finally {
+            metrics.recordCardCreation(sample, success);
+        }
+    }
+
+    private Card newCard(CardRequest request, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
 
@@ -93,15 +119,83 @@ public class CardService {
      * @throws UserNotFoundException если пользователь не найден
      */
     @Transactional(readOnly = true)
-    public Page<Card> getUserCards(Long userId, String search, Pageable pageable) {
-        if (!userRepository.existsById(userId)) {
+    public Page<CardView> getUserCards(Long userId, String search, Pageable pageable) {
+        return requireUser(userId, cardRepository.findViewsByUserId(userId, searchPattern(search), pageable));
+    }
+
+    /**
+     * Получение карт пользователя без подсчета общего количества.
+     * <p>
+     * Выбирается на одну строку больше размера страницы, {@code SELECT COUNT(*)} не выполняется.
+     *
+     * @param userId ID пользователя
+     * @param search маска номера карты
+     * @param pageable параметры пагинации
+     * @return срез с картами
+     * @throws UserNotFoundException если пользователь не найден
+     */
+    @Transactional(readOnly = true)
+    public Slice<CardView> getUserCardsSlice(Long userId, String search, Pageable pageable) {
+        return requireUser(userId, cardRepository.findViewSliceByUserId(userId, searchPattern(search), pageable));
+    }
+
+    /**
+     * Получение карт пользователя после курсора (keyset pagination).
+     * <p>
+     * Карты упорядочены по убыванию даты создания и ID. Выбирается на одну строку
+     * больше размера страницы, чтобы определить наличие следующей страницы без подсчета.
+     *
+     * @param userId ID пользователя
+     * @param search маска номера карты
+     * @param cursor курсор последней карты предыдущей страницы
+     * @param size размер страницы
+     * @return срез с картами
+     * @throws UserNotFoundException если пользователь не найден
+     */
+    @Transactional(readOnly = true)
+    public Slice<CardView> getUserCards(Long userId, String search, CardCursor cursor, int size) {
+        List<CardView> cards = cardRepository.findByUserIdAfter(userId, searchPattern(search),
+                cursor.createdAt(), cursor.id(), Limit.of(size + 1));
+        return requireUser(userId, toSlice(cards, size));
+    }
+
+    /**
+     * Проверка существования пользователя после выборки его карт.
+     * <p>
+     * Непустой результат уже подтверждает существование пользователя, поэтому
+     * отдельный запрос {@code existsById} выполняется только для пустого среза,
+     * чтобы отличить пользователя без карт от несуществующего.
+     *
+     * @throws UserNotFoundException если срез пуст и пользователь не найден
+     */
+    private <T extends Slice<CardView>> T requireUser(Long userId, T cards) {
+        if (!cards.hasContent() && !userRepository.existsById(userId)) {
             throw new UserNotFoundException(userId);
         }
+        return cards;
+    }
 
-        if (search != null && !search.trim().isEmpty()) {
-            return cardRepository.findByUserIdAndCardNumberMaskedContaining(userId, search.trim(), pageable);
-        }
-        return cardRepository.findByUserId(userId, pageable);
+    /**
+     * Нормализация строки поиска: пустая строка означает отсутствие фильтра.
+     */
+    static String normalizeSearch(String search) {
+        return search != null && !search.trim().isEmpty() ? search.trim() : null;
+    }
+
+    /**
+     * Шаблон LIKE для поиска по маске номера; null означает отсутствие фильтра.
+     */
+    static String searchPattern(String search) {
+        String normalized = normalizeSearch(search);
+        return normalized != null ? AdminService.containsPattern(normalized) : null;
+    }
+
+    /**
+     * Срез из выборки размером {@code size + 1}: лишняя строка означает наличие следующей страницы.
+     */
+    static Slice<CardView> toSlice(List<CardView> cards, int size) {
+        boolean hasNext = cards.size() > size;
+        return new SliceImpl<>(hasNext ? cards.subList(0, size) : cards, PageRequest.ofSize(size), hasNext);
     }
 
     /**
@@ -0,0 +1,142 @@
+package com.nastian.bankcards.service;
+
+import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.entity.RefreshToken;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.exception.InvalidTokenException;
+import com.nastian.bankcards.repository.RefreshTokenRepository;
+import com.nastian.bankcards.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Сервис для выдачи и ротации refresh токенов.
+ * <p>
+ * Refresh токен — случайная строка, в БД хранится только ее SHA-256.
+ * Каждый токен одноразовый:
+ * <ul>
+ *   <li>При обновлении старый токен отзывается и выдается новый</li>
+ *   <li>Повторное использование отозванного токена считается компрометацией:
+ *       отзываются все refresh токены пользователя</li>
+ *   <li>Истекшие токены периодически удаляются</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtProperties jwtProperties;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               JwtProperties jwtProperties) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtProperties = jwtProperties;
+    }
+
+    /**
+     * Результат ротации: владелец токена и новый refresh токен.
+     */
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    /**
+     * Выдача нового refresh токена.
+     *
+     * @param userId ID пользователя
+     * @return refresh токен (в БД сохраняется только хэш)
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return issue(userRepository.getReferenceById(userId));
+    }
+
+    /**
+     * Обмен refresh токена на новый.
+     *
+     * @param rawToken refresh токен
+     * @return владелец токена и новый refresh токен
+     * @throws InvalidTokenException если токен не найден, истек или уже использован
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(() -> new InvalidTokenException("Refresh token is invalid"));
+
+        if (token.isRevoked()) {
+            int revoked = refreshTokenRepository.revokeAllByUserId(token.getUser().getId());
+            log.warn("Reuse of refresh token detected for user {}, revoked {} tokens",
+                    token.getUser().getId(), revoked);
+            throw new InvalidTokenException("Refresh token has already been used");
+        }
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new InvalidTokenException("Refresh token has expired");
+        }
+
+        token.setRevoked(true);
+        return new Rotation(token.getUser(), issue(token.getUser()));
+    }
+
+    /**
+     * Отзыв refresh токена (выход из системы).
+     * <p>
+     * Неизвестный токен игнорируется.
+     *
+     * @param rawToken refresh токен
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> token.setRevoked(true));
+    }
+
+    /**
+     * Удаление истекших refresh токенов.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.debug("Purged {} expired refresh tokens", purged);
+    }
+
+    private String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(hash(rawToken));
+        token.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(jwtProperties.getRefreshExpiration())));
+        refreshTokenRepository.save(token);
+
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
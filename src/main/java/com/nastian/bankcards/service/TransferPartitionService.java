@@ -0,0 +1,248 @@
+package com.nastian.bankcards.service;
+
+import com.nastian.bankcards.config.TransferPartitionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Обслуживание месячных секций таблицы переводов.
+ * <p>
+ * Периодически (и при старте) создает секции от текущего месяца на {@code months-ahead}
+ * вперед: секции по умолчанию нет, и перевод с датой вне существующих секций не будет вставлен.
+ * <p>
+ * Если включено архивирование ({@code archive.enabled}, по умолчанию выключено):
+ * <ul>
+ *   <li>Отсоединяет секции старше {@code archive.retention-months}
+ *       ({@code DETACH PARTITION CONCURRENTLY}, без блокировки вставок)</li>
+ *   <li>Выгружает отсоединенные секции в {@code <archive.dir>/<секция>.csv.gz}
+ *       и удаляет их; файл пишется во временный и переименовывается,
+ *       таблица удаляется только после успешной записи</li>
+ * </ul>
+ * Архив — единственная копия удаленных переводов, поэтому при включении срок хранения
+ * и абсолютный путь каталога обязательны, иначе приложение не стартует.
+ * Шаги идемпотентны: прерванное отсоединение завершается ({@code FINALIZE}),
+ * отсоединенная, но не выгруженная секция выгружается при следующем запуске.
+ * Одновременно обслуживание выполняет только один узел (advisory lock).
+ */
+@Slf4j
+@Service
+public class TransferPartitionService {
+
+    static final String PARENT_TABLE = "transfers";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARENT_TABLE + "_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String LOCK_KEY = "transfers-partitioning";
+
+    private final DataSource dataSource;
+    private final TransferPartitionProperties properties;
+    private final Path archiveDir;
+
+    public TransferPartitionService(DataSource dataSource, TransferPartitionProperties properties) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.archiveDir = archiveDir(properties.getArchive());
+    }
+
+    /**
+     * Создание будущих секций и, если архивирование включено, архивирование старых.
+     * <p>
+     * Выполняется вне транзакции: {@code DETACH PARTITION CONCURRENTLY}
+     * нельзя выполнять в блоке транзакции.
+     */
+    @Scheduled(fixedDelayString = "${transfers.partitioning.maintenance-interval:3600000}")
+    public void maintain() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tryLock(connection)) {
+                log.debug("Transfer partition maintenance is running on another node");
+                return;
+            }
+            try {
+                YearMonth current = YearMonth.now();
+                createPartitions(connection, current);
+                if (archiveDir != null) {
+                    archivePartitions(connection, current.minusMonths(properties.getArchive().getRetentionMonths()));
+                }
+            } finally {
+                unlock(connection);
+            }
+        } catch (SQLException | IOException e) {
+            log.error("Transfer partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Каталог архива из настроек; null, если архивирование выключено.
+     *
+     * @throws IllegalStateException если архивирование включено без срока хранения
+     *         или без абсолютного пути каталога
+     */
+    static Path archiveDir(TransferPartitionProperties.Archive archive) {
+        if (!archive.isEnabled()) {
+            return null;
+        }
+        if (archive.getRetentionMonths() == null || archive.getRetentionMonths() <= 0) {
+            throw new IllegalStateException(
+                    "transfers.partitioning.archive.retention-months is required when archiving is enabled");
+        }
+        if (!StringUtils.hasText(archive.getDir()) || !Path.of(archive.getDir()).isAbsolute()) {
+            throw new IllegalStateException(
+                    "transfers.partitioning.archive.dir must be an absolute path when archiving is enabled");
+        }
+        return Path.of(archive.getDir());
+    }
+
+    /**
+     * Имя секции месяца, например {@code transfers_p202401}.
+     */
+    public static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_p" + month.format(SUFFIX);
+    }
+
+    /**
+     * Месяц секции по ее имени; пусто для таблиц, не являющихся месячными секциями.
+     */
+    static Optional<YearMonth> partitionMonth(String tableName) {
+        Matcher matcher = PARTITION_NAME.matcher(tableName);
+        return matcher.matches() ? Optional.of(YearMonth.parse(matcher.group(1), SUFFIX)) : Optional.empty();
+    }
+
+    /**
+     * Секции, которые должны существовать: текущий месяц и {@code monthsAhead} следующих.
+     */
+    static List<YearMonth> requiredMonths(YearMonth current, int monthsAhead) {
+        List<YearMonth> months = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            months.add(current.plusMonths(i));
+        }
+        return months;
+    }
+
+    /**
+     * Секция подлежит архивированию, если ее месяц раньше первого хранимого месяца.
+     */
+    static boolean isExpired(String tableName, YearMonth oldestKept) {
+        return partitionMonth(tableName).map(month -> month.isBefore(oldestKept)).orElse(false);
+    }
+
+    private void createPartitions(Connection connection, YearMonth current) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (YearMonth month : requiredMonths(current, properties.getMonthsAhead())) {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                        + " PARTITION OF " + PARENT_TABLE
+                        + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            }
+        }
+    }
+
+    private void archivePartitions(Connection connection, YearMonth oldestKept) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            for (Partition partition : attachedPartitions(connection)) {
+                if (!isExpired(partition.name(), oldestKept)) {
+                    continue;
+                }
+                statement.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition.name()
+                        + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+                log.info("Detached transfer partition {}", partition.name());
+            }
+        }
+
+        for (String table : detachedPartitions(connection)) {
+            Path archive = export(connection, table);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE " + table);
+            }
+            log.info("Archived transfer partition {} to {}", table, archive);
+        }
+    }
+
+    private record Partition(String name, boolean detachPending) {
+    }
+
+    private List<Partition> attachedPartitions(Connection connection) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT c.relname, i.inhdetachpending FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)")) {
+            statement.setString(1, PARENT_TABLE);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    partitions.add(new Partition(rs.getString(1), rs.getBoolean(2)));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Таблицы месячных секций, уже отсоединенные от родительской.
+     */
+    private List<String> detachedPartitions(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT c.relname FROM pg_class c " +
+                        "WHERE c.relkind = 'r' AND c.relnamespace = current_schema()::regnamespace " +
+                        "AND c.relname LIKE ? AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid)")) {
+            statement.setString(1, PARENT_TABLE + "\\_p%");
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    if (partitionMonth(rs.getString(1)).isPresent()) {
+                        tables.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    private Path export(Connection connection, String table) throws SQLException, IOException {
+        Files.createDirectories(archiveDir);
+        Path archive = archiveDir.resolve(table + ".csv.gz");
+        Path temporary = archiveDir.resolve(table + ".csv.gz.tmp");
+
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+            connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyOut("COPY " + table + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+        }
+        Files.move(temporary, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return archive;
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(hashtext(?))")) {
+            statement.setString(1, LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(hashtext(?))")) {
+            statement.setString(1, LOCK_KEY);
+            statement.execute();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.nastian.bankcards.service;
 
+import com.nastian.bankcards.config.BankMetrics;
+import com.nastian.bankcards.config.BankMetrics.TransferOutcome;
 import com.nastian.bankcards.dto.TransferRequest;
 import com.nastian.bankcards.entity.Card;
 import com.nastian.bankcards.entity.Transfer;
@@ -8,6 +10,7 @@ import com.nastian.bankcards.exception.CardNotActiveException;
 import com.nastian.bankcards.exception.InsufficientFundsException;
 import com.nastian.bankcards.repository.CardRepository;
 import com.nastian.bankcards.repository.TransferRepository;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,17 +31,23 @@ public class TransferService {
     private final TransferRepository transferRepository;
     private final CardRepository cardRepository;
     private final CardService cardService;
+    private final BankMetrics metrics;
 
     public TransferService(TransferRepository transferRepository,
                            CardRepository cardRepository,
-                           CardService cardService) {
+                           CardService cardService,
+                           BankMetrics metrics) {
         this.transferRepository = transferRepository;
         this.cardRepository = cardRepository;
         this.cardService = cardService;
+        this.metrics = metrics;
     }
 
     /**
      * Перевод средств между своими картами.
+     * <p>
+     * Время и исход записываются в таймер {@value BankMetrics#TRANSFERS}
+     * (без фиксации транзакции, она входит в {@code http.server.requests}).
      *
      * @param request данные перевода (fromCardId, toCardId, amount)
      * @param userId ID владельца карт
@@ -49,6 +58,24 @@ public class TransferService {
      */
     @Transactional
     public Transfer transferBetweenOwnCards(TransferRequest request, Long userId) {
+        Timer.Sample sample = metrics.start();
+        TransferOutcome outcome = TransferOutcome.REJECTED;
+        try {
+            Transfer transfer = transfer(request, userId);
+            outcome = TransferOutcome.SUCCESS;
+            return transfer;
+        } catch (InsufficientFundsException e) {
+            outcome = TransferOutcome.INSUFFICIENT_FUNDS;
+            throw e;
+        } catch (CardNotActiveException e) {
+            outcome = TransferOutcome.CARD_NOT_ACTIVE;
+            throw e;
+        } finally {
+            metrics.recordTransfer(sample, outcome);
+        }
+    }
+
+    private Transfer transfer(TransferRequest request, Long userId) {
 
         Card fromCard = cardService.getCardAndValidateOwnership(request.getFromCardId(), userId);
         Card toCard = cardService.getCardAndValidateOwnership(request.getToCardId(), userId);
@@ -10,6 +10,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 /**
  * Сервис для управления пользователями.
  * <p>
@@ -33,6 +35,9 @@ public class UserService {
 
     /**
      * Регистрация нового пользователя.
+     * <p>
+     * Уникальность username и email проверяется одним запросом,
+     * пароль хэшируется один раз.
      *
      * @param request данные регистрации
      * @return созданный пользователь
@@ -40,10 +45,11 @@ public class UserService {
      */
     @Transactional
     public User register(AuthRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
+        List<User> conflicts = userRepository.findByUsernameOrEmail(request.getUsername(), request.getEmail());
+        if (conflicts.stream().anyMatch(u -> u.getUsername().equals(request.getUsername()))) {
             throw new DuplicateResourceException("Username", request.getUsername());
         }
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (!conflicts.isEmpty()) {
             throw new DuplicateResourceException("Email", request.getEmail());
         }
 
@@ -78,7 +84,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return userRepository.findByNaturalId(username)
                 .orElseThrow(() -> new UserNotFoundException(username, "username"));
     }
 
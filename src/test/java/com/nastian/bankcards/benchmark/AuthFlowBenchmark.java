@@ -0,0 +1,161 @@
+package com.nastian.bankcards.benchmark;
+
+import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.config.LoginThrottleProperties;
+import com.nastian.bankcards.config.PasswordHashingProperties;
+import com.nastian.bankcards.config.UserCacheProperties;
+import com.nastian.bankcards.controller.AuthController;
+import com.nastian.bankcards.dto.AuthRequest;
+import com.nastian.bankcards.dto.JwtResponse;
+import com.nastian.bankcards.dto.LoginRequest;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.entity.UserRole;
+import com.nastian.bankcards.repository.RefreshTokenRepository;
+import com.nastian.bankcards.repository.RevokedTokenRepository;
+import com.nastian.bankcards.repository.UserRepository;
+import com.nastian.bankcards.security.BoundedPasswordEncoder;
+import com.nastian.bankcards.security.CustomUserDetailsService;
+import com.nastian.bankcards.security.JwtTokenProvider;
+import com.nastian.bankcards.security.LoginAttemptLimiter;
+import com.nastian.bankcards.security.RevokedTokenRegistry;
+import com.nastian.bankcards.security.TokenVersionRegistry;
+import com.nastian.bankcards.service.AuthService;
+import com.nastian.bankcards.service.RefreshTokenService;
+import com.nastian.bankcards.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Пропускная способность входа и регистрации.
+ * <p>
+ * Используются реальные AuthController, DaoAuthenticationProvider и BCrypt
+ * (фиксированный cost {@code strength}); репозиторий замокан, поэтому
+ * измеряется стоимость BCrypt и обвязки (включая выдачу refresh токена)
+ * без сетевых обращений к БД.
+ * {@code registerLegacy} повторяет прежнюю схему регистрации с повторной
+ * аутентификацией (хэширование + полная проверка BCrypt).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthFlowBenchmark {
+
+    @Param({"10"})
+    public int strength;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private BoundedPasswordEncoder passwordEncoder;
+    private AuthController authController;
+    private AuthService authService;
+    private AuthenticationManager authenticationManager;
+    private JwtTokenProvider tokenProvider;
+    private LoginRequest loginRequest;
+    private MockHttpServletRequest httpRequest;
+
+    @Setup
+    public void setUp() {
+        PasswordHashingProperties hashingProperties = new PasswordHashingProperties();
+        hashingProperties.setStrength(strength);
+        passwordEncoder = BoundedPasswordEncoder.create(hashingProperties);
+
+        User existing = new User();
+        existing.setId(1L);
+        existing.setUsername("benchmark");
+        existing.setEmail("benchmark@example.com");
+        existing.setPassword(passwordEncoder.encode("password123"));
+        existing.setRole(UserRole.USER);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("benchmark")).thenReturn(Optional.of(existing));
+        when(userRepository.findByUsernameOrEmail(anyString(), anyString())).thenReturn(List.of());
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(sequence.incrementAndGet());
+            when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+            return user;
+        });
+
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("benchmark-secret-key-for-jwt-signature-256-bits");
+        tokenProvider = new JwtTokenProvider(jwtProperties);
+
+        UserCacheProperties cacheProperties = new UserCacheProperties();
+        cacheProperties.setEnabled(false);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsService(new CustomUserDetailsService(userRepository,
+                new TokenVersionRegistry(userRepository, jwtProperties), cacheProperties));
+        authenticationManager = new ProviderManager(provider);
+
+        authService = new AuthService(new UserService(userRepository, passwordEncoder),
+                new RefreshTokenService(mock(RefreshTokenRepository.class), userRepository, jwtProperties),
+                new RevokedTokenRegistry(mock(RevokedTokenRepository.class), jwtProperties),
+                tokenProvider);
+        LoginThrottleProperties throttleProperties = new LoginThrottleProperties();
+        throttleProperties.setEnabled(false);
+        authController = new AuthController(authService, authenticationManager, tokenProvider,
+                new LoginAttemptLimiter(throttleProperties));
+        httpRequest = new MockHttpServletRequest();
+
+        loginRequest = new LoginRequest();
+        loginRequest.setUsername("benchmark");
+        loginRequest.setPassword("password123");
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Benchmark
+    public ResponseEntity<JwtResponse> login() {
+        ResponseEntity<JwtResponse> response = authController.login(loginRequest, httpRequest);
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+
+    @Benchmark
+    public ResponseEntity<JwtResponse> register() {
+        ResponseEntity<JwtResponse> response = authController.register(newRegistration());
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+
+    @Benchmark
+    public String registerLegacy() {
+        AuthRequest request = newRegistration();
+        authService.register(request);
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
+        return tokenProvider.generateToken(authentication);
+    }
+
+    private AuthRequest newRegistration() {
+        long n = sequence.incrementAndGet();
+        AuthRequest request = new AuthRequest();
+        request.setUsername("user" + n);
+        request.setEmail("user" + n + "@example.com");
+        request.setPassword("password123");
+        return request;
+    }
+}
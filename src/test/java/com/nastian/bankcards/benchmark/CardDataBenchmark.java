@@ -0,0 +1,94 @@
+package com.nastian.bankcards.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nastian.bankcards.dto.CardResponse;
+import com.nastian.bankcards.entity.Card;
+import com.nastian.bankcards.entity.CardStatus;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.util.CardNumberGenerator;
+import com.nastian.bankcards.util.CardNumberMasker;
+import com.nastian.bankcards.util.EncryptionUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции с данными карты на пути создания карты и выдачи списка карт.
+ * <p>
+ * {@code encrypt}/{@code decrypt} — AES из {@link EncryptionUtil} (шифр создается
+ * на каждый вызов), {@code generate} — номер из генератора на SecureRandom,
+ * {@code mask} — маска номера, {@code fromEntity} — сборка {@link CardResponse},
+ * {@code toJson} — сборка и сериализация ObjectMapper'ом с настройками Spring Boot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardDataBenchmark {
+
+    private static final String CARD_NUMBER = "4276123456781234";
+
+    private EncryptionUtil encryptionUtil;
+    private CardNumberGenerator generator;
+    private CardNumberMasker masker;
+    private ObjectMapper objectMapper;
+    private String encrypted;
+    private Card card;
+
+    @Setup
+    public void setUp() {
+        encryptionUtil = new EncryptionUtil("BankCardsKey1234");
+        generator = new CardNumberGenerator();
+        masker = new CardNumberMasker();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        encrypted = encryptionUtil.encrypt(CARD_NUMBER);
+
+        User user = new User();
+        user.setId(1L);
+        card = new Card();
+        card.setId(42L);
+        card.setUser(user);
+        card.setCardNumberEncrypted(encrypted);
+        card.setCardNumberMasked(masker.mask(CARD_NUMBER));
+        card.setCardHolderName("IVAN PETROV");
+        card.setExpirationDate(LocalDate.of(2030, 12, 31));
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal("15000.50"));
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptionUtil.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptionUtil.decrypt(encrypted);
+    }
+
+    @Benchmark
+    public String generate() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    public String mask() {
+        return masker.mask(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public CardResponse fromEntity() {
+        return CardResponse.fromEntity(card);
+    }
+
+    @Benchmark
+    public String toJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(CardResponse.fromEntity(card));
+    }
+}
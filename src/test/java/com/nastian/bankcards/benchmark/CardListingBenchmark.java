@@ -0,0 +1,100 @@
+package com.nastian.bankcards.benchmark;
+
+import com.nastian.bankcards.BankCardsApplication;
+import com.nastian.bankcards.dto.CardResponse;
+import com.nastian.bankcards.repository.CardRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость выборки страницы карт: сущности против проекции {@code CardView}.
+ * <p>
+ * {@code entities} — прежний путь: {@code findAll(Pageable)} загружает сущности
+ * {@code Card} (включая зашифрованный номер) в persistence context и преобразует
+ * их через {@code CardResponse.fromEntity}. {@code views} — выборка
+ * {@code findAllViews} только нужных столбцов с {@code CardResponse.fromView}.
+ * Оба варианта выполняются в read-only транзакции, как в сервисах, и включают
+ * запрос количества.
+ * <p>
+ * Требуется Docker: PostgreSQL запускается через Testcontainers, приложение
+ * поднимается целиком (Liquibase), в таблицу добавляется {@code CARDS} карт.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardListingBenchmark {
+
+    private static final int CARDS = 5000;
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private CardRepository cardRepository;
+    private TransactionTemplate readOnly;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+
+        // Аргументы командной строки, а не properties(): значения по умолчанию перекрываются application.yml
+        context = new SpringApplicationBuilder(BankCardsApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Long userId = jdbc.queryForObject(
+                "INSERT INTO users (username, email, password, role, token_version, created_at) " +
+                        "VALUES ('bench', 'bench@example.com', 'x', 'USER', 0, now()) RETURNING id", Long.class);
+        jdbc.update("INSERT INTO cards (card_number_encrypted, card_number_masked, card_holder_name, " +
+                        "expiration_date, status, balance, user_id, created_at) " +
+                        "SELECT repeat(md5(g::text), 4), '**** **** **** ' || lpad((g % 10000)::text, 4, '0'), " +
+                        "'BENCH USER', DATE '2030-12-31', 'ACTIVE', 100.00, ?, " +
+                        "TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute' FROM generate_series(1, ?) g",
+                userId, CARDS);
+        jdbc.execute("ANALYZE cards");
+
+        cardRepository = context.getBean(CardRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        pageable = PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<CardResponse> entities() {
+        return readOnly.execute(status -> cardRepository.findAll(pageable).map(CardResponse::fromEntity).getContent());
+    }
+
+    @Benchmark
+    public List<CardResponse> views() {
+        return readOnly.execute(status -> cardRepository.findAllViews(null, pageable).map(CardResponse::fromView).getContent());
+    }
+}
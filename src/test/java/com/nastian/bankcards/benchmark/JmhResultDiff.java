@@ -0,0 +1,90 @@
+package com.nastian.bankcards.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сравнение двух JSON-отчетов JMH ({@code -rf json}) между релизами.
+ * <p>
+ * Бенчмарки сопоставляются по имени и параметрам. Для режимов времени
+ * ({@code avgt}, {@code sample}, {@code ss}) регрессия — рост результата,
+ * для {@code thrpt} — падение. Код выхода 1, если хотя бы один бенчмарк
+ * ухудшился больше чем на {@code threshold} процентов:
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.nastian.bankcards.benchmark.JmhResultDiff \
+ *     -Dexec.args="jmh-result-1.0.0.json target/jmh-result-1.1.0.json 10"
+ * </pre>
+ */
+public final class JmhResultDiff {
+
+    private static final double DEFAULT_THRESHOLD = 10.0;
+
+    private JmhResultDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhResultDiff <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s new%n", entry.getKey());
+                continue;
+            }
+            double change = change(before, entry.getValue());
+            boolean regressed = change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %+7.1f%%%s%n", entry.getKey(), change, regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Ухудшение в процентах: положительное значение — стало хуже.
+     */
+    static double change(JsonNode before, JsonNode after) {
+        double was = before.path("primaryMetric").path("score").asDouble();
+        double now = after.path("primaryMetric").path("score").asDouble();
+        double delta = (now - was) / was * 100;
+        return "thrpt".equals(after.path("mode").asText()) ? -delta : delta;
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            results.put(key(result), result);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                .replace("com.nastian.bankcards.benchmark.", ""));
+        Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+        while (params.hasNext()) {
+            Map.Entry<String, JsonNode> param = params.next();
+            key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+        }
+        return key.toString();
+    }
+}
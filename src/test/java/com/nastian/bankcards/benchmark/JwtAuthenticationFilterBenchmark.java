@@ -0,0 +1,131 @@
+package com.nastian.bankcards.benchmark;
+
+import com.nastian.bankcards.config.BankMetrics;
+import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.entity.UserRole;
+import com.nastian.bankcards.repository.RevokedTokenRepository;
+import com.nastian.bankcards.repository.UserRepository;
+import com.nastian.bankcards.security.CustomUserDetails;
+import com.nastian.bankcards.security.JwtAuthenticationFilter;
+import com.nastian.bankcards.security.JwtTokenProvider;
+import com.nastian.bankcards.security.RevokedTokenRegistry;
+import com.nastian.bankcards.security.TokenVersionRegistry;
+import com.nastian.bankcards.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Стоимость проверки JWT на пути фильтра.
+ * <p>
+ * {@code doubleParse} повторяет прежнюю схему (validateToken + getUsernameFromToken,
+ * каждый раз новый парсер и повторная проверка HMAC), {@code parseAndVerify} —
+ * однократную проверку кэшированным парсером, {@code filter} — полный проход фильтра,
+ * {@code cachedFilter} — полный проход с включенным {@link VerifiedTokenCache},
+ * {@code revocationCheck} — проверку неотозванного токена по Bloom-фильтру {@link RevokedTokenRegistry}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-for-jwt-signature-256-bits";
+
+    private JwtTokenProvider tokenProvider;
+    private RevokedTokenRegistry revokedTokenRegistry;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter cachedFilter;
+    private SecretKey key;
+    private String token;
+    private String jti;
+    private String header;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.getTokenCache().setEnabled(false);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        tokenProvider = new JwtTokenProvider(properties);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenVersionById(anyLong())).thenReturn(Optional.of(0));
+        TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry(userRepository, properties);
+        revokedTokenRegistry = new RevokedTokenRegistry(mock(RevokedTokenRepository.class), properties);
+        revokedTokenRegistry.rebuild();
+        BankMetrics metrics = new BankMetrics(new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(tokenProvider,
+                new VerifiedTokenCache(tokenProvider, properties), tokenVersionRegistry, revokedTokenRegistry, metrics);
+
+        JwtProperties cachedProperties = new JwtProperties();
+        cachedProperties.setSecret(SECRET);
+        cachedProperties.getTokenCache().setEnabled(true);
+        cachedFilter = new JwtAuthenticationFilter(tokenProvider,
+                new VerifiedTokenCache(tokenProvider, cachedProperties), tokenVersionRegistry, revokedTokenRegistry, metrics);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setRole(UserRole.USER);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+        jti = tokenProvider.parseAndVerify(token).getId();
+        header = properties.getPrefix() + token;
+    }
+
+    @Benchmark
+    public String doubleParse() {
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public Claims parseAndVerify() {
+        return tokenProvider.parseAndVerify(token);
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        return runFilter(filter);
+    }
+
+    @Benchmark
+    public Object cachedFilter() throws Exception {
+        return runFilter(cachedFilter);
+    }
+
+    @Benchmark
+    public boolean revocationCheck() {
+        return revokedTokenRegistry.isRevoked(jti);
+    }
+
+    private Object runFilter(JwtAuthenticationFilter target) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/cards");
+        request.addHeader("Authorization", header);
+        target.doFilter(request, new MockHttpServletResponse(), chain);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
@@ -0,0 +1,69 @@
+package com.nastian.bankcards.benchmark;
+
+import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.entity.UserRole;
+import com.nastian.bankcards.security.CustomUserDetails;
+import com.nastian.bankcards.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость подписи и проверки JWT для разных алгоритмов.
+ * <p>
+ * {@code HMAC} — текущая схема с общим секретом, {@code ES256} и {@code EdDSA} —
+ * асимметричная подпись с {@code kid} (ключи генерируются при старте).
+ * Используется для оценки CPU при переходе на асимметричную подпись:
+ * {@code sign} выполняется при входе и обновлении токена, {@code verify} —
+ * на каждый запрос без попадания в кэш проверенных токенов, {@code validate} —
+ * проверка через {@link JwtTokenProvider#validateToken}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtSigningBenchmark {
+
+    @Param({"HMAC", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwtTokenProvider tokenProvider;
+    private UsernamePasswordAuthenticationToken authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("benchmark-secret-key-for-jwt-signature-256-bits");
+        properties.getSigning().setAlgorithm(algorithm);
+        tokenProvider = new JwtTokenProvider(properties);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setRole(UserRole.USER);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String sign() {
+        return tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return tokenProvider.parseAndVerify(token);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return tokenProvider.validateToken(token);
+    }
+}
@@ -0,0 +1,58 @@
+package com.nastian.bankcards.benchmark;
+
+import com.nastian.bankcards.config.PasswordHashingProperties;
+import com.nastian.bankcards.security.BoundedPasswordEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пароля BCrypt при входе.
+ * <p>
+ * {@code bcrypt} — {@link BCryptPasswordEncoder#matches} в потоке бенчмарка,
+ * {@code bounded} — то же через {@link BoundedPasswordEncoder} (отдельный пул
+ * хэширования), разница — накладные расходы передачи задачи в пул.
+ * Время растет вдвое на каждую единицу {@code strength}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordVerificationBenchmark {
+
+    private static final String PASSWORD = "password123";
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder bcrypt;
+    private BoundedPasswordEncoder bounded;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        bcrypt = new BCryptPasswordEncoder(strength);
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(strength);
+        bounded = BoundedPasswordEncoder.create(properties);
+        hash = bcrypt.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bounded.shutdown();
+    }
+
+    @Benchmark
+    public boolean bcrypt() {
+        return bcrypt.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean bounded() {
+        return bounded.matches(PASSWORD, hash);
+    }
+}
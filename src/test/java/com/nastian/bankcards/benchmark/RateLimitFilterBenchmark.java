@@ -0,0 +1,97 @@
+package com.nastian.bankcards.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nastian.bankcards.config.RateLimitProperties;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.entity.UserRole;
+import com.nastian.bankcards.security.CustomUserDetails;
+import com.nastian.bankcards.security.RateLimitFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы {@link RateLimitFilter} при высокой частоте запросов.
+ * <p>
+ * {@code passThrough} — запрос вне ограничиваемых групп (базовая линия),
+ * {@code allowed} — разрешенный запрос (бюджет не исчерпывается),
+ * {@code rejected} — отклоненный запрос с исчерпанным бюджетом.
+ * Бенчмарк запускается в нескольких потоках с разными пользователями,
+ * чтобы учесть конкуренцию за таблицу корзин.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimitFilterBenchmark {
+
+    private RateLimitFilter allowingFilter;
+    private RateLimitFilter rejectingFilter;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties allowing = new RateLimitProperties();
+        allowing.setCardsRead(new RateLimitProperties.Budget(1_000_000, 1_000_000));
+        allowingFilter = new RateLimitFilter(allowing, new ObjectMapper());
+
+        RateLimitProperties rejecting = new RateLimitProperties();
+        rejecting.setCardsRead(new RateLimitProperties.Budget(1, 0.001));
+        rejectingFilter = new RateLimitFilter(rejecting, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private static long sequence;
+
+        MockHttpServletRequest cardsRequest;
+        MockHttpServletRequest otherRequest;
+        MockHttpServletResponse response;
+        UsernamePasswordAuthenticationToken authentication;
+
+        @Setup
+        public void setUp() {
+            User user = new User();
+            synchronized (Client.class) {
+                user.setId(++sequence);
+            }
+            user.setUsername("user" + user.getId());
+            user.setRole(UserRole.USER);
+            CustomUserDetails userDetails = new CustomUserDetails(user);
+            authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+
+            cardsRequest = new MockHttpServletRequest("GET", "/user/cards");
+            otherRequest = new MockHttpServletRequest("POST", "/user/cards");
+            response = new MockHttpServletResponse();
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse passThrough(Client client) throws Exception {
+        allowingFilter.doFilter(client.otherRequest, client.response, chain);
+        return client.response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse allowed(Client client) throws Exception {
+        allowingFilter.doFilter(client.cardsRequest, client.response, chain);
+        return client.response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rejected(Client client) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rejectingFilter.doFilter(client.cardsRequest, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,127 @@
+package com.nastian.bankcards.benchmark;
+
+import com.nastian.bankcards.BankCardsApplication;
+import com.nastian.bankcards.service.AdminService;
+import com.nastian.bankcards.service.TransferPartitionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Выгрузка переводов за период на таблице из {@code rows} строк (по умолчанию 100 млн,
+ * один перевод в секунду начиная с 2024-01-01, около 38 месячных секций).
+ * <p>
+ * {@code index=brin} — BRIN по {@code timestamp} из миграции 012,
+ * {@code index=btree} — обычный B-tree по тому же столбцу вместо него.
+ * Индекс строится после заполнения; размер индекса и таблицы печатается в конце заполнения.
+ * {@code hour} и {@code day} читают через {@link AdminService#forEachTransfer}
+ * случайное окно в час (3 600 строк) и в сутки (86 400 строк).
+ * <p>
+ * Требуется Docker и около 15 ГБ диска: PostgreSQL запускается через Testcontainers,
+ * приложение поднимается целиком (Liquibase). Секции за период заполнения создаются
+ * бенчмарком; плановое обслуживание секций выполняется один раз при старте, а его
+ * интервал отодвинут на год, чтобы оно не блокировало таблицу во время заполнения и замеров.
+ * Заполнение 100 млн строк занимает десятки минут на каждый вариант индекса;
+ * для быстрой проверки уменьшите объем: {@code -p rows=10000000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransferTimeRangeBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"100000000"})
+    private long rows;
+
+    @Param({"brin", "btree"})
+    private String index;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private AdminService adminService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+
+        // Аргументы командной строки, а не properties(): значения по умолчанию перекрываются application.yml
+        context = new SpringApplicationBuilder(BankCardsApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.jpa.show-sql=false",
+                        "--transfers.partitioning.maintenance-interval=" + Duration.ofDays(365).toMillis(),
+                        "--logging.level.root=WARN");
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Long userId = jdbc.queryForObject("INSERT INTO users (username, email, password, role, token_version, " +
+                "created_at) VALUES ('bench', 'bench@example.com', 'x', 'USER', 0, now()) RETURNING id", Long.class);
+        Long cardId = jdbc.queryForObject("INSERT INTO cards (card_number_encrypted, card_number_masked, " +
+                "card_holder_name, expiration_date, status, balance, user_id, created_at) " +
+                "VALUES ('x', '**** **** **** 0001', 'BENCH', DATE '2030-12-31', 'ACTIVE', 0, ?, now()) " +
+                "RETURNING id", Long.class, userId);
+
+        YearMonth last = YearMonth.from(START.plusSeconds(rows));
+        for (YearMonth month = YearMonth.from(START); !month.isAfter(last); month = month.plusMonths(1)) {
+            jdbc.execute("CREATE TABLE IF NOT EXISTS " + TransferPartitionService.partitionName(month)
+                    + " PARTITION OF transfers FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                    + month.plusMonths(1).atDay(1) + "')");
+        }
+
+        jdbc.execute("DROP INDEX idx_transfers_timestamp_brin");
+        jdbc.update("INSERT INTO transfers (from_card_id, to_card_id, amount, timestamp, status) " +
+                "SELECT ?, ?, 1.00, TIMESTAMP '2024-01-01' + g * INTERVAL '1 second', 'COMPLETED' " +
+                "FROM generate_series(0, ? - 1) g", cardId, cardId, rows);
+        String indexName = "idx_transfers_timestamp_" + index;
+        jdbc.execute("CREATE INDEX " + indexName + " ON transfers USING " + index + " (timestamp)");
+        jdbc.execute("VACUUM ANALYZE transfers");
+
+        String sizes = jdbc.queryForObject("SELECT pg_size_pretty(sum(pg_relation_size(i.inhrelid))) || ' index, ' " +
+                "|| (SELECT pg_size_pretty(sum(pg_relation_size(t.inhrelid))) FROM pg_inherits t " +
+                "WHERE t.inhparent = 'transfers'::regclass) || ' table' " +
+                "FROM pg_inherits i WHERE i.inhparent = ?::regclass", String.class, indexName);
+        System.out.printf("%n%s on %d rows: %s%n", indexName, rows, sizes);
+
+        adminService = context.getBean(AdminService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long hour() {
+        return scan(Duration.ofHours(1));
+    }
+
+    @Benchmark
+    public long day() {
+        return scan(Duration.ofDays(1));
+    }
+
+    private long scan(Duration window) {
+        long maxOffset = rows - window.toSeconds();
+        LocalDateTime from = START.plusSeconds(ThreadLocalRandom.current().nextLong(maxOffset));
+        AtomicLong count = new AtomicLong();
+        adminService.forEachTransfer(from, from.plus(window), transfer -> count.incrementAndGet());
+        return count.get();
+    }
+}
@@ -0,0 +1,95 @@
+package com.nastian.bankcards.benchmark;
+
+import com.nastian.bankcards.BankCardsApplication;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.service.AdminService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск пользователей по подстроке на таблице из {@code USERS} строк.
+ * <p>
+ * {@code trigram} — {@code AdminService.getAllUsers} с GIN-индексами pg_trgm
+ * (ожидается меньше 10 мс на запрос для подстрок от 3 символов),
+ * {@code sequentialScan} — тот же запрос с отключенными index/bitmap-сканами
+ * в транзакции ({@code SET LOCAL}), что соответствует поиску без индексов.
+ * <p>
+ * Требуется Docker: PostgreSQL запускается через Testcontainers, приложение
+ * поднимается целиком (Liquibase). Заполнение таблицы занимает около минуты.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserSearchBenchmark {
+
+    private static final int USERS = 5_000_000;
+
+    @Param({"user4242421", "4242", "client42@"})
+    private String search;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private AdminService adminService;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transaction;
+    private final Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+
+        // Аргументы командной строки, а не properties(): значения по умолчанию перекрываются application.yml
+        context = new SpringApplicationBuilder(BankCardsApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+
+        jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO users (username, email, password, role, token_version, created_at) " +
+                "SELECT 'user' || g, 'client' || g || '@example.com', 'x', 'USER', 0, " +
+                "TIMESTAMP '2024-01-01' + g * INTERVAL '1 second' FROM generate_series(1, ?) g", USERS);
+        jdbc.execute("VACUUM ANALYZE users");
+
+        adminService = context.getBean(AdminService.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public Page<User> trigram() {
+        return adminService.getAllUsers(search, pageable);
+    }
+
+    @Benchmark
+    public Page<User> sequentialScan() {
+        return transaction.execute(status -> {
+            jdbc.execute("SET LOCAL enable_bitmapscan = off");
+            jdbc.execute("SET LOCAL enable_indexscan = off");
+            return adminService.getAllUsers(search, pageable);
+        });
+    }
+}
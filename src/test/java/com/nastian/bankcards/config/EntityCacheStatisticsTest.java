@@ -0,0 +1,65 @@
+package com.nastian.bankcards.config;
+
+import com.nastian.bankcards.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EntityCacheStatisticsTest {
+
+    private Statistics statistics;
+    private EntityCacheStatistics cacheStatistics;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        statistics = mock(Statistics.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        cacheStatistics = new EntityCacheStatistics(entityManagerFactory);
+    }
+
+    @Test
+    @DisplayName("Счетчики регионов публикуются в реестр метрик")
+    void bindTo_RegistersRegionCounters() {
+        CacheRegionStatistics users = mock(CacheRegionStatistics.class);
+        when(users.getHitCount()).thenReturn(7L);
+        when(users.getMissCount()).thenReturn(2L);
+        when(users.getPutCount()).thenReturn(3L);
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getCacheRegionStatistics(User.CACHE_REGION)).thenReturn(users);
+
+        cacheStatistics.bindTo(registry);
+
+        assertThat(registry.get(EntityCacheStatistics.REQUESTS)
+                .tags("region", User.CACHE_REGION, "result", "hit").functionCounter().count()).isEqualTo(7);
+        assertThat(registry.get(EntityCacheStatistics.REQUESTS)
+                .tags("region", User.CACHE_REGION, "result", "miss").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get(EntityCacheStatistics.PUTS)
+                .tags("region", User.CACHE_REGION).functionCounter().count()).isEqualTo(3);
+        assertThat(registry.get(EntityCacheStatistics.REQUESTS)
+                .tags("region", User.NATURAL_ID_CACHE_REGION, "result", "hit").functionCounter().count())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Без hibernate.generate_statistics метры не регистрируются")
+    void bindTo_StatisticsDisabled() {
+        when(statistics.isStatisticsEnabled()).thenReturn(false);
+
+        cacheStatistics.bindTo(registry);
+
+        assertThat(registry.getMeters()).isEmpty();
+    }
+}
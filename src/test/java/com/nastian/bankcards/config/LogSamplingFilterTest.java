@@ -0,0 +1,50 @@
+package com.nastian.bankcards.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogSamplingFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger sqlLogger = context.getLogger("org.hibernate.SQL");
+    private final Logger otherLogger = context.getLogger("com.nastian.bankcards.service.TransferService");
+
+    private LogSamplingFilter filter(double rate) {
+        LogSamplingFilter filter = new LogSamplingFilter();
+        filter.setLoggerPrefix("org.hibernate.SQL");
+        filter.setRate(rate);
+        return filter;
+    }
+
+    @Test
+    @DisplayName("Сообщения выбранного логгера отбрасываются вне выборки")
+    void sampledLogger_OutsideSample_Denied() {
+        assertThat(filter(0).decide(null, sqlLogger, Level.DEBUG, "select 1", null, null))
+                .isEqualTo(FilterReply.DENY);
+        assertThat(filter(1).decide(null, sqlLogger, Level.DEBUG, "select 1", null, null))
+                .isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    @DisplayName("Проверки уровня и другие логгеры не затрагиваются")
+    void levelChecksAndOtherLoggers_Neutral() {
+        LogSamplingFilter filter = filter(0);
+
+        assertThat(filter.decide(null, sqlLogger, Level.DEBUG, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(null, otherLogger, Level.INFO, "Transfer completed", null, null))
+                .isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    @DisplayName("Доля выборки вне [0, 1] отклоняется")
+    void invalidRate_Rejected() {
+        assertThatThrownBy(() -> filter(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,78 @@
+package com.nastian.bankcards.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private ReplicaLagMonitor lagMonitor;
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Read-only транзакция идет на реплику")
+    void readOnly_RoutesToReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    @DisplayName("Read-only транзакция идет в основную базу при отставании реплики")
+    void readOnly_ReplicaLagging_RoutesToPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Пишущая транзакция идет в основную базу")
+    void readWrite_RoutesToPrimary() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+        verifyNoInteractions(lagMonitor);
+    }
+
+    @Test
+    @DisplayName("Недоступная реплика помечается непригодной")
+    void lagMonitor_ReplicaUnavailable() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, new ReplicaProperties());
+
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+}
@@ -0,0 +1,43 @@
+package com.nastian.bankcards.config;
+
+import com.nastian.bankcards.entity.Card;
+import com.nastian.bankcards.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaIndexCheckerTest {
+
+    @Test
+    @DisplayName("Индексы схемы совпадают с объявленными, лишние индексы схемы не учитываются")
+    void findMismatches_Match() {
+        Map<String, Map<String, List<String>>> schema = Map.of(
+                "cards", Map.of(
+                        "idx_cards_user_created_id", List.of("user_id", "created_at", "id"),
+                        "idx_cards_created_id", List.of("created_at", "id"),
+                        "cards_pkey", List.of("id")));
+
+        assertThat(SchemaIndexChecker.findMismatches(List.of(Card.class), schema)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Отсутствующий индекс и другой набор столбцов попадают в отчет")
+    void findMismatches_MissingAndDifferentColumns() {
+        Map<String, Map<String, List<String>>> schema = Map.of(
+                "users", Map.of("users_username_key", List.of("username")),
+                "cards", Map.of(
+                        "idx_cards_user_created_id", List.of("user_id", "created_at"),
+                        "idx_cards_created_id", List.of("created_at", "id")));
+
+        List<String> mismatches = SchemaIndexChecker.findMismatches(List.of(User.class, Card.class), schema);
+
+        assertThat(mismatches).hasSize(2);
+        assertThat(mismatches.get(0)).contains("idx_users_created_id", "missing", "users");
+        assertThat(mismatches.get(1)).contains("idx_cards_user_created_id", "[user_id, created_at]",
+                "[user_id, created_at, id]");
+    }
+}
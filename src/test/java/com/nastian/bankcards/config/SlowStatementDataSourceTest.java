@@ -0,0 +1,104 @@
+package com.nastian.bankcards.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlowStatementDataSourceTest {
+
+    private static final String SQL = "UPDATE cards SET balance = ? WHERE id = ?";
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    private final List<SlowStatementDataSource.SlowStatement> reported = new ArrayList<>();
+
+    private Connection connect(long thresholdMillis) throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        return new SlowStatementDataSource(target, thresholdMillis, reported::add).getConnection();
+    }
+
+    @Test
+    @DisplayName("Запрос дольше порога: текст и число параметров без значений")
+    void slowPreparedStatement_ReportsParameterCount() throws SQLException {
+        when(connection.prepareStatement(SQL)).thenReturn(preparedStatement);
+
+        PreparedStatement statement = connect(0).prepareStatement(SQL);
+        statement.setString(1, "100.00");
+        statement.setLong(2, 42L);
+        statement.setFetchSize(10);
+        statement.executeUpdate();
+
+        verify(preparedStatement).executeUpdate();
+        assertThat(reported).singleElement().satisfies(slow -> {
+            assertThat(slow.sql()).isEqualTo(SQL);
+            assertThat(slow.parameters()).isEqualTo(2);
+            assertThat(slow.batches()).isZero();
+            assertThat(slow.toString()).doesNotContain("100.00");
+        });
+    }
+
+    @Test
+    @DisplayName("Пакетный запрос: считаются пакеты, счетчик сбрасывается после выполнения")
+    void batch_ReportsBatchCount() throws SQLException {
+        when(connection.prepareStatement(SQL)).thenReturn(preparedStatement);
+
+        PreparedStatement statement = connect(0).prepareStatement(SQL);
+        for (long id = 1; id <= 3; id++) {
+            statement.setLong(2, id);
+            statement.addBatch();
+        }
+        statement.executeBatch();
+        statement.executeBatch();
+
+        assertThat(reported).extracting(SlowStatementDataSource.SlowStatement::batches).containsExactly(3, 0);
+    }
+
+    @Test
+    @DisplayName("Обычный Statement: текст запроса берется из аргумента execute")
+    void plainStatement_ReportsExecutedSql() throws SQLException {
+        Statement plain = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(plain);
+
+        connect(0).createStatement().execute("ANALYZE transfers");
+
+        assertThat(reported).singleElement().satisfies(slow -> {
+            assertThat(slow.sql()).isEqualTo("ANALYZE transfers");
+            assertThat(slow.parameters()).isZero();
+        });
+    }
+
+    @Test
+    @DisplayName("Запрос быстрее порога не пишется, ошибка драйвера пробрасывается как есть")
+    void fastStatement_NotReported() throws SQLException {
+        when(connection.prepareStatement(SQL)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1).thenThrow(new SQLException("deadlock"));
+
+        PreparedStatement statement = connect(60_000).prepareStatement(SQL);
+
+        assertThat(statement.executeUpdate()).isEqualTo(1);
+        assertThatThrownBy(statement::executeUpdate).isInstanceOf(SQLException.class).hasMessage("deadlock");
+        assertThat(reported).isEmpty();
+    }
+}
@@ -1,9 +1,13 @@
 package com.nastian.bankcards.controller;
 
+import com.nastian.bankcards.dto.CardCursor;
 import com.nastian.bankcards.dto.CardRequest;
+import com.nastian.bankcards.dto.CardView;
+import com.nastian.bankcards.dto.TransferView;
 import com.nastian.bankcards.dto.UpdateRoleRequest;
 import com.nastian.bankcards.entity.Card;
 import com.nastian.bankcards.entity.CardStatus;
+import com.nastian.bankcards.entity.TransferStatus;
 import com.nastian.bankcards.entity.User;
 import com.nastian.bankcards.entity.UserRole;
 import com.nastian.bankcards.security.CustomUserDetails;
@@ -22,6 +26,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -29,12 +34,15 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -63,6 +71,7 @@ class AdminControllerTest {
     private User regularUser;
     private CustomUserDetails adminDetails;
     private Card card;
+    private CardView cardView;
     private CardRequest cardRequest;
     private UpdateRoleRequest updateRoleRequest;
     private Pageable pageable;
@@ -96,6 +105,9 @@ class AdminControllerTest {
         card.setBalance(new BigDecimal("100.00"));
         card.setCardNumberMasked("**** **** **** 1234");
 
+        cardView = new CardView(1L, "**** **** **** 1234", "Test User", card.getExpirationDate(),
+                CardStatus.ACTIVE, new BigDecimal("100.00"), 2L, LocalDateTime.of(2024, 1, 15, 10, 30, 45));
+
         cardRequest = new CardRequest();
         cardRequest.setCardHolderName("New Card");
         cardRequest.setExpirationDate(LocalDate.now().plusYears(1));
@@ -249,7 +261,7 @@ class AdminControllerTest {
     @Test
     @DisplayName("Получение всех карт - успешно")
     void getAllCards_Success() throws Exception {
-        PageImpl<Card> page = new PageImpl<>(List.of(card), pageable, 1);
+        PageImpl<CardView> page = new PageImpl<>(List.of(cardView), pageable, 1);
         when(adminService.getAllCards(isNull(), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/admin/cards")
@@ -263,10 +275,48 @@ class AdminControllerTest {
                 .andExpect(jsonPath("$.totalElements", is(1)));
     }
 
+    @Test
+    @DisplayName("Получение всех карт без COUNT - приблизительное общее количество")
+    void getAllCards_WithoutCount() throws Exception {
+        SliceImpl<CardView> slice = new SliceImpl<>(List.of(cardView), pageable, true);
+        when(adminService.getAllCardsSlice(isNull(), any(Pageable.class))).thenReturn(slice);
+        when(adminService.estimateCardCount()).thenReturn(25000L);
+
+        mockMvc.perform(get("/admin/cards")
+                        .param("count", "false")
+                        .param("approximateTotal", "true")
+                        .with(user(adminDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.approximateTotal", is(25000)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist());
+
+        verify(adminService, never()).getAllCards(any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Получение всех карт по курсору - последняя страница")
+    void getAllCardsByCursor_LastPage() throws Exception {
+        CardCursor cursor = new CardCursor(LocalDateTime.of(2024, 2, 1, 0, 0), 50L);
+        SliceImpl<CardView> slice = new SliceImpl<>(List.of(cardView), PageRequest.ofSize(100), false);
+        when(adminService.getAllCards(isNull(), eq(cursor), eq(100))).thenReturn(slice);
+
+        mockMvc.perform(get("/admin/cards")
+                        .param("cursor", cursor.encode())
+                        .param("size", "500")
+                        .with(user(adminDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
     @Test
     @DisplayName("Поиск карт - успешно")
     void getAllCards_WithSearch_Success() throws Exception {
-        PageImpl<Card> page = new PageImpl<>(List.of(card), pageable, 1);
+        PageImpl<CardView> page = new PageImpl<>(List.of(cardView), pageable, 1);
         when(adminService.getAllCards(eq("1234"), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/admin/cards")
@@ -280,7 +330,7 @@ class AdminControllerTest {
     @Test
     @DisplayName("Получение карт пользователя - успешно")
     void getUserCards_Success() throws Exception {
-        PageImpl<Card> page = new PageImpl<>(List.of(card), pageable, 1);
+        PageImpl<CardView> page = new PageImpl<>(List.of(cardView), pageable, 1);
         when(adminService.getUserCards(eq(2L), isNull(), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/admin/users/2/cards")
@@ -293,7 +343,7 @@ class AdminControllerTest {
     @Test
     @DisplayName("Получение карт пользователя с поиском - успешно")
     void getUserCards_WithSearch_Success() throws Exception {
-        PageImpl<Card> page = new PageImpl<>(List.of(card), pageable, 1);
+        PageImpl<CardView> page = new PageImpl<>(List.of(cardView), pageable, 1);
         when(adminService.getUserCards(eq(2L), eq("1234"), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/admin/users/2/cards")
@@ -405,6 +455,53 @@ class AdminControllerTest {
                 .andExpect(jsonPath("$.message", containsString("Card not found")));
     }
 
+    @Test
+    @DisplayName("Выгрузка переводов за период - NDJSON по строке на перевод")
+    @SuppressWarnings("unchecked")
+    void getTransfers_StreamsNdjson() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        doAnswer(invocation -> {
+            Consumer<TransferView> action = invocation.getArgument(2);
+            action.accept(new TransferView(1L, 10L, 20L, new BigDecimal("50.00"),
+                    LocalDateTime.of(2024, 1, 15, 10, 30, 45), TransferStatus.COMPLETED));
+            action.accept(new TransferView(2L, 20L, 10L, new BigDecimal("5.00"),
+                    LocalDateTime.of(2024, 1, 16, 9, 0), TransferStatus.COMPLETED));
+            return null;
+        }).when(adminService).forEachTransfer(eq(from), eq(to), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/admin/transfers")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-02-01T00:00:00")
+                        .with(user(adminDetails)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines, arrayWithSize(2));
+        assertThat(objectMapper.readTree(lines[0]).get("fromCardId").asLong(), is(10L));
+        assertThat(objectMapper.readTree(lines[0]).get("timestamp").asText(), is("2024-01-15T10:30:45"));
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong(), is(2L));
+    }
+
+    @Test
+    @DisplayName("Выгрузка переводов - пустой период")
+    void getTransfers_InvalidRange() throws Exception {
+        mockMvc.perform(get("/admin/transfers")
+                        .param("from", "2024-02-01T00:00:00")
+                        .param("to", "2024-01-01T00:00:00")
+                        .with(user(adminDetails)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("'from' must be before 'to'")));
+
+        verify(adminService, never()).forEachTransfer(any(), any(), any());
+    }
+
     @TestConfiguration
     @EnableWebSecurity
     static class TestSecurityConfig {
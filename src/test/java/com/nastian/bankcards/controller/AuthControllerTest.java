@@ -2,10 +2,16 @@ package com.nastian.bankcards.controller;
 
 import com.nastian.bankcards.dto.AuthRequest;
 import com.nastian.bankcards.dto.LoginRequest;
+import com.nastian.bankcards.dto.RefreshTokenRequest;
 import com.nastian.bankcards.entity.User;
 import com.nastian.bankcards.entity.UserRole;
+import com.nastian.bankcards.exception.InvalidTokenException;
+import com.nastian.bankcards.exception.TooManyRequestsException;
+import com.nastian.bankcards.security.CustomUserDetails;
 import com.nastian.bankcards.security.JwtTokenProvider;
+import com.nastian.bankcards.security.LoginAttemptLimiter;
 import com.nastian.bankcards.service.AuthService;
+import com.nastian.bankcards.service.RefreshTokenService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -29,6 +35,8 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -52,6 +60,9 @@ class AuthControllerTest {
     @MockBean
     private JwtTokenProvider tokenProvider;
 
+    @MockBean
+    private LoginAttemptLimiter loginAttemptLimiter;
+
     private AuthRequest authRequest;
     private LoginRequest loginRequest;
     private User user;
@@ -76,7 +87,9 @@ class AuthControllerTest {
         user.setEmail("test@example.com");
         user.setRole(UserRole.USER);
 
-        authentication = new UsernamePasswordAuthenticationToken("tester", "password123");
+        CustomUserDetails principal = new CustomUserDetails(user);
+        authentication = UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, principal.getAuthorities());
         token = "jwt-token-12345";
     }
 
@@ -84,9 +97,7 @@ class AuthControllerTest {
     @DisplayName("Регистрация - успешно")
     void register_Success() throws Exception {
         when(authService.register(any(AuthRequest.class))).thenReturn(user);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(tokenProvider.generateToken(authentication)).thenReturn(token);
+        when(tokenProvider.generateToken(any(Authentication.class))).thenReturn(token);
 
         mockMvc.perform(post("/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -99,8 +110,8 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.role", is("USER")));
 
         verify(authService).register(any(AuthRequest.class));
-        verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(tokenProvider).generateToken(authentication);
+        verify(authenticationManager, never()).authenticate(any());
+        verify(tokenProvider).generateToken(any(Authentication.class));
     }
 
     @Test
@@ -148,16 +159,21 @@ class AuthControllerTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(tokenProvider.generateToken(authentication)).thenReturn(token);
-        when(authService.findByUsername("tester")).thenReturn(user);
+        when(authService.issueRefreshToken(1L)).thenReturn("refresh-token");
 
         mockMvc.perform(post("/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token", is(token)))
+                .andExpect(jsonPath("$.refreshToken", is("refresh-token")))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.username", is("tester")))
+                .andExpect(jsonPath("$.email", is("test@example.com")))
                 .andExpect(jsonPath("$.role", is("USER")));
+
+        verify(authService, never()).findByUsername(any());
+        verify(loginAttemptLimiter).recordSuccess(eq("tester"), anyString());
     }
 
     @Test
@@ -171,6 +187,90 @@ class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.message", containsString("Invalid username or password")));
+
+        verify(loginAttemptLimiter).recordAttempt(eq("tester"), anyString());
+        verify(loginAttemptLimiter, never()).recordSuccess(any(), any());
+    }
+
+    @Test
+    @DisplayName("Логин - очередь хэширования переполнена")
+    void login_TooManyRequests() throws Exception {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new TooManyRequestsException("Too many authentication requests, try again later", 1));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status", is(429)));
+    }
+
+    @Test
+    @DisplayName("Логин - лимит попыток исчерпан, пароль не проверяется")
+    void login_AttemptLimitExceeded() throws Exception {
+        doThrow(new TooManyRequestsException("Too many login attempts, try again later", 42))
+                .when(loginAttemptLimiter).recordAttempt(eq("tester"), anyString());
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "42"))
+                .andExpect(jsonPath("$.message", containsString("Too many login attempts")));
+
+        verify(authenticationManager, never()).authenticate(any());
+    }
+
+    @Test
+    @DisplayName("Обновление токена - успешно")
+    void refresh_Success() throws Exception {
+        RefreshTokenRequest refreshRequest = new RefreshTokenRequest();
+        refreshRequest.setRefreshToken("old-refresh-token");
+        when(authService.refresh("old-refresh-token"))
+                .thenReturn(new RefreshTokenService.Rotation(user, "new-refresh-token"));
+        when(tokenProvider.generateToken(any(Authentication.class))).thenReturn(token);
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token", is(token)))
+                .andExpect(jsonPath("$.refreshToken", is("new-refresh-token")))
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(authService, never()).issueRefreshToken(any());
+    }
+
+    @Test
+    @DisplayName("Обновление токена - токен уже использован")
+    void refresh_InvalidToken() throws Exception {
+        RefreshTokenRequest refreshRequest = new RefreshTokenRequest();
+        refreshRequest.setRefreshToken("used-refresh-token");
+        when(authService.refresh("used-refresh-token"))
+                .thenThrow(new InvalidTokenException("Refresh token has already been used"));
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message", containsString("already been used")));
+    }
+
+    @Test
+    @DisplayName("Выход - отзыв токенов")
+    void logout_Success() throws Exception {
+        RefreshTokenRequest refreshRequest = new RefreshTokenRequest();
+        refreshRequest.setRefreshToken("refresh-token");
+        when(tokenProvider.resolveToken(any())).thenReturn(token);
+
+        mockMvc.perform(post("/auth/logout")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout("refresh-token", token);
     }
 
     @Test
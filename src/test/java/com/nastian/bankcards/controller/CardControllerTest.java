@@ -1,6 +1,8 @@
 package com.nastian.bankcards.controller;
 
+import com.nastian.bankcards.dto.CardCursor;
 import com.nastian.bankcards.dto.CardRequest;
+import com.nastian.bankcards.dto.CardView;
 import com.nastian.bankcards.dto.TransferRequest;
 import com.nastian.bankcards.entity.Card;
 import com.nastian.bankcards.entity.CardStatus;
@@ -25,6 +27,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -68,6 +71,7 @@ class CardControllerTest {
     private JwtTokenProvider tokenProvider;
 
     private Card card;
+    private CardView cardView;
     private CardRequest cardRequest;
     private Transfer transfer;
     private TransferRequest transferRequest;
@@ -96,6 +100,9 @@ class CardControllerTest {
         card.setBalance(new BigDecimal("100.00"));
         card.setCardNumberMasked("**** **** **** 1234");
 
+        cardView = new CardView(1L, "**** **** **** 1234", "Test User", card.getExpirationDate(),
+                CardStatus.ACTIVE, new BigDecimal("100.00"), USER_ID, LocalDateTime.of(2024, 1, 15, 10, 30, 45));
+
         cardRequest = new CardRequest();
         cardRequest.setCardHolderName("Test User");
         cardRequest.setExpirationDate(LocalDate.now().plusYears(1));
@@ -118,7 +125,7 @@ class CardControllerTest {
     @DisplayName("Получение своих карт - успешно")
     void getMyCards_Success() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        PageImpl<Card> page = new PageImpl<>(List.of(card), pageable, 1);
+        PageImpl<CardView> page = new PageImpl<>(List.of(cardView), pageable, 1);
         when(cardService.getUserCards(eq(USER_ID), isNull(), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/user/cards")
@@ -129,14 +136,65 @@ class CardControllerTest {
                 .andExpect(jsonPath("$.content[0].cardHolderName", is("Test User")))
                 .andExpect(jsonPath("$.content[0].balance", is(100.00)))
                 .andExpect(jsonPath("$.content[0].status", is("ACTIVE")))
-                .andExpect(jsonPath("$.totalElements", is(1)));
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.totalPages", is(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Получение своих карт без COUNT")
+    void getMyCards_WithoutCount() throws Exception {
+        SliceImpl<CardView> slice = new SliceImpl<>(List.of(cardView), PageRequest.of(0, 10), false);
+        when(cardService.getUserCardsSlice(eq(USER_ID), isNull(), any(Pageable.class))).thenReturn(slice);
+
+        mockMvc.perform(get("/user/cards")
+                        .param("count", "false")
+                        .with(user(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.last", is(true)))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+
+        verify(cardService, never()).getUserCards(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Получение своих карт по курсору - первая страница и курсор следующей")
+    void getMyCardsByCursor_Success() throws Exception {
+        SliceImpl<CardView> slice = new SliceImpl<>(List.of(cardView), PageRequest.ofSize(1), true);
+        when(cardService.getUserCards(eq(USER_ID), isNull(), eq(CardCursor.FIRST), eq(1))).thenReturn(slice);
+
+        mockMvc.perform(get("/user/cards")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .with(user(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextCursor", is(CardCursor.of(cardView).encode())))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(cardService, never()).getUserCards(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Получение своих карт по курсору - поврежденный курсор")
+    void getMyCardsByCursor_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/user/cards")
+                        .param("cursor", "not-a-cursor")
+                        .with(user(userDetails)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Invalid cursor")));
     }
 
     @Test
     @DisplayName("Получение карт с поиском - успешно")
     void getMyCards_WithSearch_Success() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        PageImpl<Card> page = new PageImpl<>(List.of(card), pageable, 1);
+        PageImpl<CardView> page = new PageImpl<>(List.of(cardView), pageable, 1);
         when(cardService.getUserCards(eq(USER_ID), eq("1234"), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/user/cards")
@@ -0,0 +1,237 @@
+package com.nastian.bankcards.datagen;
+
+import com.nastian.bankcards.service.TransferPartitionService;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Генератор синтетического набора данных для проверок на миллионах строк.
+ * <p>
+ * Загружает {@code users} пользователей, по {@code cards-per-user} карт на каждого и
+ * {@code transfers} переводов за последние {@code months} месяцев командой {@code COPY}
+ * в несколько соединений; строки описаны в {@link SyntheticData}. Схема должна быть
+ * создана миграциями (приложение запускалось на этой базе хотя бы раз).
+ * <p>
+ * Идентификаторы пользователей и карт резервируются сдвигом их последовательностей до загрузки,
+ * поэтому генератор можно запускать повторно и на базе с данными: имена {@code <prefix><id>}
+ * не пересекаются. Недостающие месячные секции переводов создаются. Каждая часть
+ * ({@code chunk-size} строк) фиксируется отдельно: при ошибке загруженные части остаются.
+ */
+public final class DataGenerator {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private DataGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        DataGeneratorOptions options = DataGeneratorOptions.parse(args);
+        LocalDateTime end = LocalDateTime.now().withNano(0);
+        LocalDateTime start = end.minusMonths(options.months);
+        long total = System.nanoTime();
+
+        SyntheticData data;
+        try (Connection connection = connect(options); Statement statement = connection.createStatement()) {
+            if (!tableExists(statement, "transfers")) {
+                throw new IllegalStateException("Schema not found, start the application once to apply migrations");
+            }
+            if (isPartitioned(statement)) {
+                createPartitions(statement, YearMonth.from(start), YearMonth.from(end));
+            }
+            long userBase = reserveIds(statement, "users", options.users);
+            long cardBase = reserveIds(statement, "cards", (long) options.users * options.cardsPerUser);
+            String passwordHash = new BCryptPasswordEncoder().encode(options.password);
+            data = new SyntheticData(options, userBase, cardBase, start, end, passwordHash);
+            System.out.printf("Generating %d users (ids from %d), %d cards (ids from %d), %d transfers "
+                            + "from %s to %s in %d threads%n", options.users, userBase,
+                    (long) options.users * options.cardsPerUser, cardBase, options.transfers, start, end,
+                    options.threads);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        try {
+            load(executor, options, "users", options.users, userChunks(options, data));
+            load(executor, options, "cards", (long) options.users * options.cardsPerUser, cardChunks(options, data));
+            load(executor, options, "transfers", options.transfers, transferChunks(options, data, start, end));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Connection connection = connect(options); Statement statement = connection.createStatement()) {
+            long analyze = System.nanoTime();
+            statement.execute("ANALYZE users, cards, transfers");
+            System.out.printf("analyze: %.1f s%n", seconds(analyze));
+        }
+        System.out.printf("Done in %.1f s%n", seconds(total));
+    }
+
+    /** Часть таблицы: одна задача пула со своим соединением. */
+    private record Chunk(long rows, ChunkLoader loader) {
+    }
+
+    private interface ChunkLoader {
+        void load(Connection connection) throws SQLException, IOException;
+    }
+
+    private interface Rows {
+        void write(Writer out) throws IOException;
+    }
+
+    private static List<Chunk> userChunks(DataGeneratorOptions options, SyntheticData data) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (int from = 0; from < options.users; from += options.chunkSize) {
+            int chunkFrom = from;
+            int chunkTo = (int) Math.min(options.users, (long) from + options.chunkSize);
+            chunks.add(new Chunk(chunkTo - chunkFrom, connection -> copy(connection, SyntheticData.USERS_COPY,
+                    out -> data.writeUsers(out, chunkFrom, chunkTo))));
+        }
+        return chunks;
+    }
+
+    private static List<Chunk> cardChunks(DataGeneratorOptions options, SyntheticData data) {
+        List<Chunk> chunks = new ArrayList<>();
+        int usersPerChunk = Math.max(1, options.chunkSize / options.cardsPerUser);
+        for (int from = 0; from < options.users; from += usersPerChunk) {
+            int chunkFrom = from;
+            int chunkTo = (int) Math.min(options.users, (long) from + usersPerChunk);
+            chunks.add(new Chunk((long) (chunkTo - chunkFrom) * options.cardsPerUser,
+                    connection -> copy(connection, SyntheticData.CARDS_COPY,
+                            out -> data.writeCards(out, chunkFrom, chunkTo))));
+        }
+        return chunks;
+    }
+
+    /**
+     * Переводы делятся по месяцам: месяц загружается одним потоком по порядку времени,
+     * и страницы секции заполняются так же последовательно, как при обычных вставках
+     * (иначе параллельные части перемешали бы страницы и исказили BRIN-индекс).
+     */
+    private static List<Chunk> transferChunks(DataGeneratorOptions options, SyntheticData data,
+                                              LocalDateTime start, LocalDateTime end) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(start); !month.isAfter(YearMonth.from(end)); month = month.plusMonths(1)) {
+            long monthFrom = data.firstTransferAt(month.atDay(1).atStartOfDay());
+            long monthTo = data.firstTransferAt(month.plusMonths(1).atDay(1).atStartOfDay());
+            if (monthFrom == monthTo) {
+                continue;
+            }
+            chunks.add(new Chunk(monthTo - monthFrom, connection -> {
+                for (long from = monthFrom; from < monthTo; from += options.chunkSize) {
+                    long chunkFrom = from;
+                    long chunkTo = Math.min(monthTo, from + options.chunkSize);
+                    copy(connection, SyntheticData.TRANSFERS_COPY, out -> data.writeTransfers(out, chunkFrom, chunkTo));
+                }
+            }));
+        }
+        return chunks;
+    }
+
+    private static void load(ExecutorService executor, DataGeneratorOptions options, String table, long rows,
+                             List<Chunk> chunks) throws InterruptedException {
+        long started = System.nanoTime();
+        AtomicLong loaded = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            futures.add(executor.submit(() -> {
+                try (Connection connection = connect(options)) {
+                    chunk.loader().load(connection);
+                }
+                long done = loaded.addAndGet(chunk.rows());
+                System.out.printf("%s: %d/%d (%.0f rows/s)%n", table, done, rows, done / seconds(started));
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Failed to load " + table, e.getCause());
+        }
+        System.out.printf("%s: %d rows in %.1f s%n", table, rows, seconds(started));
+    }
+
+    /**
+     * {@code COPY ... FROM STDIN} в одной транзакции; при ошибке генерации копирование
+     * отменяется, чтобы сервер не зафиксировал уже переданную часть строк.
+     */
+    private static void copy(Connection connection, String sql, Rows rows) throws SQLException, IOException {
+        PGCopyOutputStream stream = new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql, BUFFER_SIZE);
+        try {
+            Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            rows.write(out);
+            out.close();
+        } catch (IOException | RuntimeException e) {
+            if (stream.isActive()) {
+                stream.cancelCopy();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Сдвигает последовательность идентификаторов таблицы на {@code count} значений
+     * (не ниже существующих строк) и возвращает первый из зарезервированных.
+     */
+    private static long reserveIds(Statement statement, String table, long count) throws SQLException {
+        String sequence = "pg_get_serial_sequence('" + table + "', 'id')";
+        try (ResultSet rs = statement.executeQuery("SELECT setval(" + sequence + ", GREATEST(nextval(" + sequence
+                + "), (SELECT COALESCE(max(id), 0) + 1 FROM " + table + ")) + " + (count - 1) + ")")) {
+            rs.next();
+            return rs.getLong(1) - count + 1;
+        }
+    }
+
+    private static void createPartitions(Statement statement, YearMonth from, YearMonth to) throws SQLException {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TransferPartitionService.partitionName(month)
+                    + " PARTITION OF transfers FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                    + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    private static boolean tableExists(Statement statement, String table) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT to_regclass('" + table + "') IS NOT NULL")) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    private static boolean isPartitioned(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(
+                "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('transfers')")) {
+            rs.next();
+            return rs.getInt(1) > 0;
+        }
+    }
+
+    private static Connection connect(DataGeneratorOptions options) throws SQLException {
+        return DriverManager.getConnection(options.dbUrl, options.dbUsername, options.dbPassword);
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
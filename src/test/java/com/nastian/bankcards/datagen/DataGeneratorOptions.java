@@ -0,0 +1,87 @@
+package com.nastian.bankcards.datagen;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры генератора набора данных из аргументов {@code --имя=значение}.
+ */
+final class DataGeneratorOptions {
+
+    /** JDBC URL базы, к которой уже применены миграции. */
+    final String dbUrl;
+    final String dbUsername;
+    final String dbPassword;
+    /** Пользователей, карт на пользователя и переводов. */
+    final int users;
+    final int cardsPerUser;
+    final long transfers;
+    /** Период (в месяцах до текущего момента), на который распределяются даты создания и переводы. */
+    final int months;
+    /**
+     * Показатель неравномерности активности: отправитель выбирается как {@code users * u^skew}
+     * при равномерном {@code u}. 1 — все одинаково активны, 3 — 10% самых активных дают больше половины переводов.
+     */
+    final double skew;
+    /** Ключ {@code spring.encryption.secret-key} приложения, которое будет читать данные. */
+    final String secretKey;
+    /** Пароль всех созданных пользователей. */
+    final String password;
+    final String usernamePrefix;
+    final long seed;
+    /** Потоков (и соединений), загружающих части таблиц параллельно. */
+    final int threads;
+    /** Строк в одной части: одна команда COPY в своей транзакции. */
+    final int chunkSize;
+
+    private DataGeneratorOptions(Map<String, String> args) {
+        dbUrl = take(args, "db-url", null);
+        dbUsername = take(args, "db-username", "postgres");
+        dbPassword = take(args, "db-password", "postgres");
+        users = Integer.parseInt(take(args, "users", "1000000"));
+        cardsPerUser = Integer.parseInt(take(args, "cards-per-user", "2"));
+        transfers = Long.parseLong(take(args, "transfers", "10000000"));
+        months = Integer.parseInt(take(args, "months", "12"));
+        skew = Double.parseDouble(take(args, "skew", "3"));
+        secretKey = take(args, "secret-key", System.getenv().getOrDefault("ENCRYPTION_SECRET", "BankCardsKey1234"));
+        password = take(args, "password", "password123");
+        usernamePrefix = take(args, "prefix", "gen");
+        seed = Long.parseLong(take(args, "seed", "42"));
+        threads = Integer.parseInt(take(args, "threads",
+                String.valueOf(Math.min(4, Runtime.getRuntime().availableProcessors()))));
+        chunkSize = Integer.parseInt(take(args, "chunk-size", "200000"));
+
+        if (!args.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + args.keySet());
+        }
+        if (dbUrl == null) {
+            throw new IllegalArgumentException("--db-url is required");
+        }
+        if (users <= 0 || cardsPerUser <= 0 || transfers < 0 || months <= 0 || threads <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Sizes must be positive");
+        }
+        if (transfers > 0 && cardsPerUser < 2) {
+            throw new IllegalArgumentException("cards-per-user must be at least 2 for transfers");
+        }
+        if (skew < 1) {
+            throw new IllegalArgumentException("skew must be at least 1");
+        }
+    }
+
+    static DataGeneratorOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new DataGeneratorOptions(values);
+    }
+
+    private static String take(Map<String, String> args, String name, String defaultValue) {
+        String value = args.remove(name);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,185 @@
+package com.nastian.bankcards.datagen;
+
+import com.nastian.bankcards.util.CardNumberMasker;
+import com.nastian.bankcards.util.EncryptionUtil;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Строки синтетического набора данных в текстовом формате {@code COPY}.
+ * <p>
+ * Каждая строка вычисляется по своему номеру, поэтому части таблиц генерируются
+ * независимо и параллельно, а связи получаются арифметически:
+ * <ul>
+ *   <li>пользователь {@code i} — {@code id = userBase + i}, создан в момент
+ *       {@code start + span * i / users} (равномерный прирост клиентов)</li>
+ *   <li>его карта {@code j} — {@code id = cardBase + i * cardsPerUser + j}; номер шифруется
+ *       {@link EncryptionUtil} и маскируется {@link CardNumberMasker}, как при создании через API</li>
+ *   <li>перевод {@code k} — в момент {@code start + span * sqrt(k / transfers)}: объем растет
+ *       к текущему месяцу, а строки идут в порядке времени, как при обычных вставках.
+ *       Отправитель выбирается среди уже зарегистрированных как {@code n * u^skew}, то есть
+ *       давние клиенты активнее; сумма распределена логнормально (медиана 50)</li>
+ * </ul>
+ */
+final class SyntheticData {
+
+    static final String USERS_COPY = "COPY users (id, username, email, password, role, token_version, created_at) "
+            + "FROM STDIN";
+    static final String CARDS_COPY = "COPY cards (id, card_number_encrypted, card_number_masked, card_holder_name, "
+            + "expiration_date, status, balance, user_id, created_at) FROM STDIN";
+    static final String TRANSFERS_COPY = "COPY transfers (from_card_id, to_card_id, amount, timestamp, status) "
+            + "FROM STDIN";
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] FIRST_NAMES = {"IVAN", "ANNA", "PETR", "MARIA", "ALEKSEI", "OLGA", "DMITRII",
+            "ELENA", "SERGEI", "NATALIA", "ANDREI", "IRINA", "PAVEL", "TATIANA", "NIKOLAI", "SVETLANA"};
+    private static final String[] LAST_NAMES = {"IVANOV", "SMIRNOV", "KUZNETSOV", "POPOV", "VASILEV", "PETROV",
+            "SOKOLOV", "MIKHAILOV", "NOVIKOV", "FEDOROV", "MOROZOV", "VOLKOV", "ALEKSEEV", "LEBEDEV"};
+
+    private final DataGeneratorOptions options;
+    private final long userBase;
+    private final long cardBase;
+    private final long start;
+    private final long span;
+    private final String passwordHash;
+    private final EncryptionUtil encryptionUtil;
+    private final CardNumberMasker masker;
+
+    SyntheticData(DataGeneratorOptions options, long userBase, long cardBase, LocalDateTime start,
+                  LocalDateTime end, String passwordHash) {
+        this.options = options;
+        this.userBase = userBase;
+        this.cardBase = cardBase;
+        this.start = start.toEpochSecond(ZoneOffset.UTC);
+        this.span = end.toEpochSecond(ZoneOffset.UTC) - this.start;
+        this.passwordHash = passwordHash;
+        this.encryptionUtil = new EncryptionUtil(options.secretKey);
+        this.masker = new CardNumberMasker();
+    }
+
+    void writeUsers(Writer out, int from, int to) throws IOException {
+        StringBuilder row = new StringBuilder(256);
+        for (int i = from; i < to; i++) {
+            long id = userBase + i;
+            String username = options.usernamePrefix + id;
+            row.setLength(0);
+            row.append(id).append('\t')
+                    .append(username).append('\t')
+                    .append(username).append("@example.com").append('\t')
+                    .append(passwordHash).append('\t')
+                    .append("USER").append('\t')
+                    .append(0).append('\t')
+                    .append(timestamp(userCreatedAt(i))).append('\n');
+            out.append(row);
+        }
+    }
+
+    void writeCards(Writer out, int fromUser, int toUser) throws IOException {
+        SplittableRandom random = random("cards", fromUser);
+        LocalDateTime now = LocalDateTime.ofEpochSecond(start + span, 0, ZoneOffset.UTC);
+        StringBuilder row = new StringBuilder(256);
+        char[] number = new char[16];
+        for (int i = fromUser; i < toUser; i++) {
+            String holder = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + ' '
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            for (int j = 0; j < options.cardsPerUser; j++) {
+                for (int d = 0; d < number.length; d++) {
+                    number[d] = (char) ('0' + random.nextInt(10));
+                }
+                String cardNumber = new String(number);
+
+                // 90% активных, 7% заблокированных, 3% просроченных (срок в прошлом)
+                int roll = random.nextInt(100);
+                String status = roll < 90 ? "ACTIVE" : roll < 97 ? "BLOCKED" : "EXPIRED";
+                LocalDateTime expiration = "EXPIRED".equals(status)
+                        ? now.minusMonths(1 + random.nextInt(24))
+                        : now.plusMonths(1 + random.nextInt(60));
+
+                row.setLength(0);
+                row.append(cardBase + (long) i * options.cardsPerUser + j).append('\t')
+                        .append(encryptionUtil.encrypt(cardNumber)).append('\t')
+                        .append(masker.mask(cardNumber)).append('\t')
+                        .append(holder).append('\t')
+                        .append(expiration.toLocalDate()).append('\t')
+                        .append(status).append('\t');
+                appendMoney(row, logNormalCents(random, 100_000, 1.5));
+                row.append('\t')
+                        .append(userBase + i).append('\t')
+                        .append(timestamp(userCreatedAt(i) + j)).append('\n');
+                out.append(row);
+            }
+        }
+    }
+
+    void writeTransfers(Writer out, long from, long to) throws IOException {
+        SplittableRandom random = random("transfers", from);
+        StringBuilder row = new StringBuilder(128);
+        for (long k = from; k < to; k++) {
+            double fraction = Math.sqrt((k + random.nextDouble()) / options.transfers);
+            long registered = Math.max(1, Math.min(options.users, (long) (options.users * fraction)));
+            long user = (long) (registered * Math.pow(random.nextDouble(), options.skew));
+            int fromCard = random.nextInt(options.cardsPerUser);
+            int toCard = (fromCard + 1 + random.nextInt(options.cardsPerUser - 1)) % options.cardsPerUser;
+
+            // 98% успешных, 1.5% неуспешных, 0.5% отмененных
+            int roll = random.nextInt(1000);
+            String status = roll < 980 ? "COMPLETED" : roll < 995 ? "FAILED" : "CANCELLED";
+
+            row.setLength(0);
+            row.append(cardBase + user * options.cardsPerUser + fromCard).append('\t')
+                    .append(cardBase + user * options.cardsPerUser + toCard).append('\t');
+            appendMoney(row, logNormalCents(random, 5_000, 1.2));
+            row.append('\t')
+                    .append(timestamp(start + (long) (span * fraction))).append('\t')
+                    .append(status).append('\n');
+            out.append(row);
+        }
+    }
+
+    /**
+     * Первый номер перевода с моментом не раньше {@code moment}: обратная функция
+     * к распределению времени переводов, по ней переводы делятся на месяцы.
+     */
+    long firstTransferAt(LocalDateTime moment) {
+        long offset = moment.toEpochSecond(ZoneOffset.UTC) - start;
+        if (offset <= 0) {
+            return 0;
+        }
+        if (offset >= span) {
+            return options.transfers;
+        }
+        double fraction = (double) offset / span;
+        return (long) Math.ceil(options.transfers * fraction * fraction);
+    }
+
+    private long userCreatedAt(long user) {
+        return start + span * user / options.users;
+    }
+
+    private SplittableRandom random(String table, long chunkStart) {
+        return new SplittableRandom(options.seed * 31 + table.hashCode() * 1_000_003L + chunkStart);
+    }
+
+    private static long logNormalCents(SplittableRandom random, long medianCents, double sigma) {
+        long cents = Math.round(medianCents * Math.exp(sigma * random.nextGaussian()));
+        return Math.max(1, Math.min(cents, 99_999_999L));
+    }
+
+    private static void appendMoney(StringBuilder row, long cents) {
+        row.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            row.append('0');
+        }
+        row.append(fraction);
+    }
+
+    private static String timestamp(long epochSecond) {
+        return TIMESTAMP.format(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC));
+    }
+}
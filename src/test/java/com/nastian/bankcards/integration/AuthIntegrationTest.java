@@ -2,6 +2,7 @@ package com.nastian.bankcards.integration;
 
 import com.nastian.bankcards.dto.AuthRequest;
 import com.nastian.bankcards.dto.LoginRequest;
+import com.nastian.bankcards.dto.RefreshTokenRequest;
 import com.nastian.bankcards.entity.UserRole;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,6 +16,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -109,4 +111,57 @@ class AuthIntegrationTest extends BaseIntegrationTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("Username already exists")));
     }
+
+    @Test
+    @DisplayName("Refresh токен одноразовый, выход отзывает access токен")
+    void refreshAndLogout_Success() throws Exception {
+        String uniqueId = String.valueOf(System.currentTimeMillis());
+
+        AuthRequest registerRequest = new AuthRequest();
+        registerRequest.setUsername("refresh" + uniqueId);
+        registerRequest.setEmail("refresh" + uniqueId + "@test.com");
+        registerRequest.setPassword("password123");
+
+        MvcResult registerResult = mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andReturn();
+        String firstRefreshToken = objectMapper.readTree(registerResult.getResponse().getContentAsString())
+                .get("refreshToken").asText();
+
+        RefreshTokenRequest refreshRequest = new RefreshTokenRequest();
+        refreshRequest.setRefreshToken(firstRefreshToken);
+
+        MvcResult refreshResult = mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode refreshResponse = objectMapper.readTree(refreshResult.getResponse().getContentAsString());
+        String accessToken = refreshResponse.get("token").asText();
+        String secondRefreshToken = refreshResponse.get("refreshToken").asText();
+        assertThat(secondRefreshToken).isNotEqualTo(firstRefreshToken);
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/user/cards")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        refreshRequest.setRefreshToken(secondRefreshToken);
+        mockMvc.perform(post("/auth/logout")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/user/cards")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+    }
 }
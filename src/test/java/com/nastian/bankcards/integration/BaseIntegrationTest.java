@@ -32,6 +32,7 @@ public abstract class BaseIntegrationTest {
         registry.add("spring.datasource.password", postgres::getPassword);
         registry.add("spring.liquibase.enabled", () -> "true");
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("schema.index-check.fail-on-mismatch", () -> "true");
         registry.add("spring.datasource.hikari.connection-timeout", () -> "60000");
         registry.add("spring.datasource.hikari.max-lifetime", () -> "1000");
         registry.add("spring.datasource.hikari.idle-timeout", () -> "1000");
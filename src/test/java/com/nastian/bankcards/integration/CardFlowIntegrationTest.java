@@ -118,4 +118,45 @@ class CardFlowIntegrationTest extends BaseIntegrationTest {
                         .content(objectMapper.writeValueAsString(cardRequest)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Просмотр карт по курсору: страницы без пропусков и повторов")
+    void cursorPagination_Success() throws Exception {
+        CardRequest cardRequest = new CardRequest();
+        cardRequest.setCardHolderName("Test User");
+        cardRequest.setExpirationDate(LocalDate.now().plusYears(2));
+
+        long[] cardIds = new long[3];
+        for (int i = 0; i < cardIds.length; i++) {
+            MvcResult createResult = mockMvc.perform(post("/user/cards")
+                            .header("Authorization", "Bearer " + jwtToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(cardRequest)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            cardIds[i] = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+        }
+
+        MvcResult firstPage = mockMvc.perform(get("/user/cards")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("cursor", "")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(cardIds[2]))
+                .andExpect(jsonPath("$.content[1].id").value(cardIds[1]))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+        String nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        mockMvc.perform(get("/user/cards")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("cursor", nextCursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(cardIds[0]))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+}
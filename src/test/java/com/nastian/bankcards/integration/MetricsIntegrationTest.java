@@ -0,0 +1,118 @@
+package com.nastian.bankcards.integration;
+
+import com.nastian.bankcards.dto.AuthRequest;
+import com.nastian.bankcards.dto.CardRequest;
+import com.nastian.bankcards.dto.TransferRequest;
+import com.nastian.bankcards.entity.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@TestPropertySource(properties = "metrics.scrape.password=scrape-secret")
+class MetricsIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Prometheus отдает таймеры переводов, создания карт, JWT, метрики пула Hikari и кэша второго уровня")
+    void prometheus_ExposesBusinessAndPoolMetrics() throws Exception {
+        String token = register("metrics");
+
+        Long fromCardId = createCard(token);
+        Long toCardId = createCard(token);
+
+        // Баланс новых карт нулевой: перевод отклоняется как insufficient_funds
+        TransferRequest transfer = new TransferRequest();
+        transfer.setFromCardId(fromCardId);
+        transfer.setToCardId(toCardId);
+        transfer.setAmount(new BigDecimal("10.00"));
+        mockMvc.perform(post("/user/transfers")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transfer)))
+                .andExpect(status().isBadRequest());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(line(scrape, "bank_transfers_seconds_count{", "outcome=\"insufficient_funds\"")).endsWith(" 1.0");
+        assertThat(line(scrape, "bank_transfers_seconds_bucket{", "outcome=\"success\"")).isNotNull();
+        assertThat(line(scrape, "bank_cards_create_seconds_count{", "outcome=\"success\"")).endsWith(" 2.0");
+        assertThat(line(scrape, "bank_cards_create_seconds{", "quantile=\"0.95\"")).isNotNull();
+        assertThat(line(scrape, "bank_jwt_authentication_seconds_count{", "result=\"authenticated\"")).isNotNull();
+        assertThat(line(scrape, "hikaricp_connections_active{", "application=\"bank-cards\"")).isNotNull();
+        assertThat(line(scrape, "hibernate_second_level_cache_requests_total{", "result=\"hit\"")).isNotNull();
+        assertThat(line(scrape, "cache_gets_total{", "cache=\"jwt.verified-tokens\"")).isNotNull();
+        assertThat(line(scrape, "cache_gets_total{", "cache=\"security.users\"")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Метрики закрыты без учетных данных сборщика и для JWT пользователя, health открыт")
+    void prometheus_RequiresScrapeCredentials() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + register("scrape")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    private String register(String prefix) throws Exception {
+        String username = prefix + System.nanoTime();
+        AuthRequest register = new AuthRequest();
+        register.setUsername(username);
+        register.setEmail(username + "@test.com");
+        register.setPassword("password123");
+        register.setRole(UserRole.USER);
+        return objectMapper.readTree(mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(register)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private Long createCard(String token) throws Exception {
+        CardRequest request = new CardRequest();
+        request.setCardHolderName("Metrics User");
+        request.setExpirationDate(LocalDate.now().plusYears(2));
+        return objectMapper.readTree(mockMvc.perform(post("/user/cards")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private static String line(String scrape, String prefix, String label) {
+        return Arrays.stream(scrape.split("\n"))
+                .filter(line -> line.startsWith(prefix) && line.contains(label))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + prefix + label + "} in scrape"));
+    }
+}
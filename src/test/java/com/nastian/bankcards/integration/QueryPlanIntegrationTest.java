@@ -0,0 +1,133 @@
+package com.nastian.bankcards.integration;
+
+import com.nastian.bankcards.repository.UserRepository;
+import com.nastian.bankcards.service.TransferPartitionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Планы запросов репозиториев на схеме после миграций.
+ * <p>
+ * SQL повторяет запросы репозиториев (нативные берутся из констант репозиториев).
+ * Последовательное сканирование отключается в транзакции ({@code SET LOCAL enable_seqscan = off}):
+ * если подходящего индекса нет, PostgreSQL все равно выберет Seq Scan, поэтому
+ * тест падает при удалении или переименовании индекса, на который опирается запрос.
+ */
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class QueryPlanIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String explain(String sql, String... setup) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            for (String statement : setup) {
+                jdbcTemplate.execute(statement);
+            }
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+            return String.join("\n", lines);
+        });
+    }
+
+    private void assertUsesIndex(String sql, String indexName, String... setup) {
+        String plan = explain(sql, setup);
+        assertThat(plan).as(plan).doesNotContain("Seq Scan").contains(indexName);
+    }
+
+    @Test
+    @DisplayName("Карты пользователя: страница, срез и курсор используют idx_cards_user_created_id")
+    void userCards_UseUserCreatedIndex() {
+        assertUsesIndex("SELECT id FROM cards WHERE user_id = 1 "
+                + "ORDER BY created_at DESC LIMIT 10", "idx_cards_user_created_id");
+        assertUsesIndex("SELECT count(*) FROM cards WHERE user_id = 1", "idx_cards_user_created_id");
+        assertUsesIndex("SELECT id FROM cards WHERE user_id = 1 "
+                + "AND (created_at, id) < (TIMESTAMP '2030-01-01', 100) "
+                + "ORDER BY created_at DESC, id DESC LIMIT 11", "idx_cards_user_created_id");
+    }
+
+    @Test
+    @DisplayName("Все карты: страница и курсор используют idx_cards_created_id")
+    void allCards_UseCreatedIndex() {
+        assertUsesIndex("SELECT id FROM cards ORDER BY created_at DESC LIMIT 10", "idx_cards_created_id");
+        assertUsesIndex("SELECT id FROM cards WHERE (created_at, id) < (TIMESTAMP '2030-01-01', 100) "
+                + "ORDER BY created_at DESC, id DESC LIMIT 11", "idx_cards_created_id");
+    }
+
+    @Test
+    @DisplayName("Пользователи: список по дате создания и поиск по подстроке")
+    void users_UseCreatedAndTrigramIndexes() {
+        assertUsesIndex("SELECT id FROM users ORDER BY created_at DESC LIMIT 10", "idx_users_created_id");
+        assertUsesIndex(UserRepository.SEARCH.replace(":pattern", "'%ivan%'") + " LIMIT 10",
+                "idx_users_username_trgm");
+        assertUsesIndex("SELECT id FROM users WHERE username = 'ivan'", "users_username_key");
+    }
+
+    @Test
+    @DisplayName("Переводы и токены: выборки по внешним ключам и срокам")
+    void transfersAndTokens_UseIndexes() {
+        // Индексы секций наследуются от idx_transfers_* и получают имена <секция>_<столбец>_idx
+        assertUsesIndex("SELECT id FROM transfers WHERE from_card_id = 1", "from_card_id_idx");
+        assertUsesIndex("SELECT id FROM transfers WHERE to_card_id = 1", "to_card_id_idx");
+        assertUsesIndex("SELECT id FROM refresh_tokens WHERE token_hash = 'hash'", "token_hash");
+        assertUsesIndex("SELECT id FROM refresh_tokens WHERE user_id = 1 AND revoked = false",
+                "idx_refresh_tokens_user");
+        assertUsesIndex("SELECT id FROM revoked_tokens WHERE jti = 'jti'", "jti");
+        assertUsesIndex("SELECT id FROM revoked_tokens WHERE revoked_at > TIMESTAMP '2030-01-01'",
+                "idx_revoked_tokens_revoked_at");
+        assertUsesIndex("SELECT id FROM revoked_tokens WHERE expires_at > TIMESTAMP '2030-01-01'",
+                "idx_revoked_tokens_expires_at");
+    }
+
+    @Test
+    @DisplayName("Переводы: запрос за месяц читает только секцию этого месяца")
+    void transfersTimeRange_PrunesPartitions() {
+        YearMonth month = YearMonth.now();
+        String plan = explain("SELECT id FROM transfers WHERE timestamp >= TIMESTAMP '" + month.atDay(1)
+                + " 00:00:00' AND timestamp < TIMESTAMP '" + month.plusMonths(1).atDay(1) + " 00:00:00'");
+
+        assertThat(plan).as(plan)
+                .contains(TransferPartitionService.partitionName(month))
+                .doesNotContain(TransferPartitionService.partitionName(month.plusMonths(1)))
+                .doesNotContain(TransferPartitionService.partitionName(month.minusMonths(1)));
+    }
+
+    @Test
+    @DisplayName("Переводы: выгрузка за период идет по BRIN-индексу idx_transfers_timestamp_brin")
+    void transfersTimeRange_UsesBrinIndex() {
+        LocalDateTime from = YearMonth.now().atDay(1).atStartOfDay();
+        // На пустой секции планировщик выбирает первичный ключ (id, timestamp) — BRIN выигрывает
+        // только на данных: месяц переводов в порядке времени, откатывается вместе с транзакцией
+        String[] month = {
+                "INSERT INTO users (username, email, password, role, token_version, created_at) "
+                        + "VALUES ('brin-plan', 'brin-plan@test.com', 'x', 'USER', 0, now())",
+                "INSERT INTO cards (card_number_encrypted, card_number_masked, card_holder_name, "
+                        + "expiration_date, status, balance, user_id, created_at) "
+                        + "SELECT 'x', '**** **** **** 0001', 'BRIN', DATE '2030-12-31', 'ACTIVE', 0, id, now() "
+                        + "FROM users WHERE username = 'brin-plan'",
+                "INSERT INTO transfers (from_card_id, to_card_id, amount, timestamp, status) "
+                        + "SELECT c.id, c.id, 1, TIMESTAMP '" + from + "' + g * INTERVAL '10 seconds', 'COMPLETED' "
+                        + "FROM cards c, generate_series(0, 6 * 60 * 24 * 28 - 1) g WHERE c.card_holder_name = 'BRIN'",
+                "ANALYZE transfers"
+        };
+        // Индекс секции наследуется от idx_transfers_timestamp_brin: <секция>_timestamp_idx
+        assertUsesIndex("SELECT id, from_card_id, to_card_id, amount, timestamp, status FROM transfers "
+                + "WHERE timestamp >= TIMESTAMP '" + from + "' AND timestamp < TIMESTAMP '" + from.plusHours(1) + "'",
+                TransferPartitionService.partitionName(YearMonth.now()) + "_timestamp_idx", month);
+    }
+}
@@ -0,0 +1,58 @@
+package com.nastian.bankcards.integration;
+
+import com.nastian.bankcards.config.ReplicaLagMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Маршрутизация на реплику с пулом-заменителем: реплика без url подключается
+ * к тому же контейнеру, пулы различаются по {@code application_name}.
+ */
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestPropertySource(properties = {
+        "spring.datasource.replica.enabled=true",
+        "spring.datasource.hikari.data-source-properties.ApplicationName=primary",
+        "spring.datasource.replica.hikari.data-source-properties.ApplicationName=replica"
+})
+class ReadReplicaRoutingIntegrationTest extends BaseIntegrationTest {
+
+    private static final String APPLICATION_NAME = "SELECT current_setting('application_name')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @BeforeEach
+    void setUp() {
+        lagMonitor.check();
+    }
+
+    @Test
+    @DisplayName("Read-only транзакция выполняется на реплике, пишущая — в основной базе")
+    void routesByTransactionReadOnlyFlag() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        String readOnlyPool = readOnly.execute(status -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+        String readWritePool = readWrite.execute(status -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+        assertThat(readOnlyPool).isEqualTo("replica");
+        assertThat(readWritePool).isEqualTo("primary");
+    }
+}
@@ -0,0 +1,83 @@
+package com.nastian.bankcards.integration;
+
+import com.nastian.bankcards.config.EntityCacheStatistics;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.entity.UserRole;
+import com.nastian.bankcards.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class SecondLevelCacheIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityCacheStatistics cacheStatistics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private TransactionTemplate transaction;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transaction = new TransactionTemplate(transactionManager);
+
+        String username = "cached" + System.nanoTime();
+        User newUser = new User();
+        newUser.setUsername(username);
+        newUser.setEmail(username + "@test.com");
+        newUser.setPassword("x");
+        newUser.setRole(UserRole.USER);
+        user = transaction.execute(status -> userRepository.save(newUser));
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("Повторный поиск по username берется из кэша без запросов к БД")
+    void findByNaturalId_SecondLookupHitsCache() {
+        userRepository.findByNaturalId(user.getUsername());
+        long naturalIdHits = cacheStatistics.userNaturalIdRegion().getHitCount();
+        long userHits = cacheStatistics.userRegion().getHitCount();
+        long statements = statistics.getPrepareStatementCount();
+
+        User cached = userRepository.findByNaturalId(user.getUsername()).orElseThrow();
+
+        assertThat(cached.getId()).isEqualTo(user.getId());
+        assertThat(cacheStatistics.userNaturalIdRegion().getHitCount()).isGreaterThan(naturalIdHits);
+        assertThat(cacheStatistics.userRegion().getHitCount()).isGreaterThan(userHits);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    @DisplayName("Изменение пользователя обновляет кэш при коммите")
+    void updateRole_RefreshesCachedState() {
+        userRepository.findByNaturalId(user.getUsername());
+
+        transaction.executeWithoutResult(status -> {
+            User managed = userRepository.findById(user.getId()).orElseThrow();
+            managed.setRole(UserRole.ADMIN);
+        });
+
+        assertThat(userRepository.findByNaturalId(user.getUsername()).orElseThrow().getRole())
+                .isEqualTo(UserRole.ADMIN);
+    }
+}
@@ -0,0 +1,222 @@
+package com.nastian.bankcards.integration;
+
+import com.nastian.bankcards.dto.AuthRequest;
+import com.nastian.bankcards.dto.CardRequest;
+import com.nastian.bankcards.dto.TransferRequest;
+import com.nastian.bankcards.entity.UserRole;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бюджет SQL-запросов на эндпоинт.
+ * <p>
+ * Каждый эндпоинт из {@link #BUDGETS} вызывается после прогрева кэшей
+ * аутентификации, запросы Hibernate считаются {@link StatementCounter}.
+ * Превышение бюджета (N+1, лишние {@code existsById}) роняет сборку; при
+ * осознанном изменении числа запросов бюджет правится здесь же.
+ */
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@AutoConfigureMockMvc
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.nastian.bankcards.integration.StatementCounter")
+class StatementBudgetIntegrationTest extends BaseIntegrationTest {
+
+    /**
+     * Бюджеты равны наблюдаемому числу запросов. Страничные выборки проверяются
+     * на неполной странице (Spring Data не выполняет {@code COUNT}, один запрос)
+     * и на полной (выборка и {@code COUNT}). Без подсчета и по курсору — один запрос
+     * и на полной странице. Пользователь по ID берется из кэша второго уровня.
+     * Перевод: две карты, два UPDATE, INSERT.
+     */
+    private static final Map<String, Integer> BUDGETS = Map.ofEntries(
+            Map.entry("GET /user/cards, partial page", 1),
+            Map.entry("GET /user/cards, full page", 2),
+            Map.entry("GET /user/cards?count=false, full page", 1),
+            Map.entry("GET /user/cards?cursor, full page", 1),
+            Map.entry("POST /user/cards", 1),
+            Map.entry("GET /user/cards/{cardId}/balance", 1),
+            Map.entry("POST /user/cards/{cardId}/block", 2),
+            Map.entry("POST /user/transfers", 5),
+            Map.entry("GET /admin/users, partial page", 1),
+            Map.entry("GET /admin/users, full page", 2),
+            Map.entry("GET /admin/users/{userId}", 0),
+            Map.entry("GET /admin/cards, partial page", 1),
+            Map.entry("GET /admin/cards, full page", 2),
+            Map.entry("GET /admin/users/{userId}/cards, partial page", 1),
+            Map.entry("GET /admin/users/{userId}/cards, full page", 2)
+    );
+
+    /**
+     * Карт у пользователя фикстуры. Страница такого размера заполнена целиком:
+     * в общих таблицах пользователей и карт строк не меньше.
+     */
+    private static final int FIXTURE_CARDS = 2;
+    private static final String FULL_PAGE = String.valueOf(FIXTURE_CARDS);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String userToken;
+    private String adminToken;
+    private Long userId;
+    private Long fromCardId;
+    private Long toCardId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String uniqueId = String.valueOf(System.nanoTime());
+
+        JsonNode user = register("budgetuser" + uniqueId, UserRole.USER);
+        userToken = user.get("token").asText();
+        userId = user.get("id").asLong();
+        adminToken = register("budgetadmin" + uniqueId, UserRole.ADMIN).get("token").asText();
+
+        fromCardId = createCard();
+        toCardId = createCard();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM cards WHERE user_id = ?", Integer.class, userId))
+                .isEqualTo(FIXTURE_CARDS);
+        jdbcTemplate.update("UPDATE cards SET balance = 1000.00 WHERE id IN (?, ?)", fromCardId, toCardId);
+
+        // Прогрев кэшей версий токенов, чтобы аутентификация не попадала в бюджет
+        mockMvc.perform(get("/user/cards").header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/admin/users").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Эндпоинты пользователя укладываются в бюджет запросов")
+    void userEndpoints_WithinBudget() throws Exception {
+        measure("GET /user/cards, partial page", get("/user/cards").param("size", partial(FIXTURE_CARDS)), userToken);
+        assertThat(measure("GET /user/cards, full page", get("/user/cards").param("size", FULL_PAGE), userToken))
+                .anyMatch(StatementBudgetIntegrationTest::isCount);
+        measure("GET /user/cards?count=false, full page", get("/user/cards")
+                .param("count", "false").param("size", FULL_PAGE), userToken);
+        measure("GET /user/cards?cursor, full page", get("/user/cards")
+                .param("cursor", "").param("size", FULL_PAGE), userToken);
+        measure("GET /user/cards/{cardId}/balance", get("/user/cards/{cardId}/balance", fromCardId), userToken);
+
+        TransferRequest transfer = new TransferRequest();
+        transfer.setFromCardId(fromCardId);
+        transfer.setToCardId(toCardId);
+        transfer.setAmount(new BigDecimal("50.00"));
+        measure("POST /user/transfers", post("/user/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transfer)), userToken);
+
+        measure("POST /user/cards", post("/user/cards")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(cardRequest())), userToken);
+        measure("POST /user/cards/{cardId}/block", post("/user/cards/{cardId}/block", toCardId), userToken);
+    }
+
+    @Test
+    @DisplayName("Эндпоинты администратора укладываются в бюджет запросов")
+    void adminEndpoints_WithinBudget() throws Exception {
+        // Общие таблицы заполняются и другими тестами: неполная страница больше всех строк
+        int users = jdbcTemplate.queryForObject("SELECT count(*) FROM users", Integer.class);
+        int cards = jdbcTemplate.queryForObject("SELECT count(*) FROM cards", Integer.class);
+
+        measure("GET /admin/users, partial page", get("/admin/users").param("size", partial(users)), adminToken);
+        assertThat(measure("GET /admin/users, full page", get("/admin/users").param("size", FULL_PAGE), adminToken))
+                .anyMatch(StatementBudgetIntegrationTest::isCount);
+        measure("GET /admin/users/{userId}", get("/admin/users/{userId}", userId), adminToken);
+        measure("GET /admin/cards, partial page", get("/admin/cards").param("size", partial(cards)), adminToken);
+        assertThat(measure("GET /admin/cards, full page", get("/admin/cards").param("size", FULL_PAGE), adminToken))
+                .anyMatch(StatementBudgetIntegrationTest::isCount);
+        measure("GET /admin/users/{userId}/cards, partial page", get("/admin/users/{userId}/cards", userId)
+                .param("size", partial(FIXTURE_CARDS)), adminToken);
+        assertThat(measure("GET /admin/users/{userId}/cards, full page", get("/admin/users/{userId}/cards", userId)
+                .param("size", FULL_PAGE), adminToken))
+                .anyMatch(StatementBudgetIntegrationTest::isCount);
+    }
+
+    /**
+     * Размер первой страницы, на которую не хватит строк: {@code COUNT} не нужен.
+     */
+    private static String partial(int rows) {
+        return String.valueOf(rows + 1);
+    }
+
+    private List<String> measure(String endpoint, MockHttpServletRequestBuilder request, String token) throws Exception {
+        Integer budget = BUDGETS.get(endpoint);
+        if (budget == null) {
+            fail("No statement budget declared for " + endpoint);
+        }
+
+        StatementCounter.reset();
+        mockMvc.perform(request.header("Authorization", "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+        List<String> statements = StatementCounter.statements();
+
+        assertThat(statements)
+                .as("%s executed %d statements, budget is %d", endpoint, statements.size(), budget)
+                .hasSizeLessThanOrEqualTo(budget);
+        return statements;
+    }
+
+    private static boolean isCount(String sql) {
+        return sql.toLowerCase().contains("count(");
+    }
+
+    private JsonNode register(String username, UserRole role) throws Exception {
+        AuthRequest request = new AuthRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@test.com");
+        request.setPassword("password123");
+        request.setRole(role);
+
+        MvcResult result = mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private Long createCard() throws Exception {
+        MvcResult result = mockMvc.perform(post("/user/cards")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cardRequest())))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private CardRequest cardRequest() {
+        CardRequest request = new CardRequest();
+        request.setCardHolderName("Budget User");
+        request.setExpirationDate(LocalDate.now().plusYears(2));
+        return request;
+    }
+}
@@ -0,0 +1,33 @@
+package com.nastian.bankcards.integration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Счетчик SQL-запросов, выполненных Hibernate в текущем потоке.
+ * <p>
+ * Регистрируется свойством {@code hibernate.session_factory.statement_inspector};
+ * Hibernate создает экземпляр сам, поэтому состояние хранится в статическом
+ * {@link ThreadLocal}. MockMvc выполняет запрос в потоке теста, а запросы
+ * фоновых задач (очистка токенов и т.п.) идут в других потоках и не учитываются.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+}
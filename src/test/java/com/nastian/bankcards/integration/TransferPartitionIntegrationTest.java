@@ -0,0 +1,70 @@
+package com.nastian.bankcards.integration;
+
+import com.nastian.bankcards.service.TransferPartitionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TransferPartitionIntegrationTest extends BaseIntegrationTest {
+
+    @TempDir
+    static Path archiveDir;
+
+    @DynamicPropertySource
+    static void partitioning(DynamicPropertyRegistry registry) {
+        registry.add("transfers.partitioning.archive.enabled", () -> "true");
+        registry.add("transfers.partitioning.archive.retention-months", () -> "12");
+        registry.add("transfers.partitioning.archive.dir", archiveDir::toString);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransferPartitionService partitionService;
+
+    @Test
+    @DisplayName("Будущие секции создаются, старая секция выгружается в архив и удаляется")
+    void maintain_CreatesFutureAndArchivesOldPartitions() throws IOException {
+        Long userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, email, password, role, token_version, created_at) " +
+                        "VALUES ('archive', 'archive@example.com', 'x', 'USER', 0, now()) RETURNING id", Long.class);
+        Long cardId = jdbcTemplate.queryForObject(
+                "INSERT INTO cards (card_number_encrypted, card_number_masked, card_holder_name, " +
+                        "expiration_date, status, balance, user_id, created_at) " +
+                        "VALUES ('x', '**** **** **** 0001', 'ARCHIVE', DATE '2030-12-31', 'ACTIVE', 0, ?, now()) " +
+                        "RETURNING id", Long.class, userId);
+        jdbcTemplate.execute("CREATE TABLE transfers_p202001 PARTITION OF transfers " +
+                "FOR VALUES FROM ('2020-01-01') TO ('2020-02-01')");
+        jdbcTemplate.update("INSERT INTO transfers (from_card_id, to_card_id, amount, timestamp, status) " +
+                "VALUES (?, ?, 42.50, TIMESTAMP '2020-01-15 12:00:00', 'COMPLETED')", cardId, cardId);
+
+        partitionService.maintain();
+
+        String future = TransferPartitionService.partitionName(YearMonth.now().plusMonths(3));
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, future)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('transfers_p202001') IS NULL", Boolean.class)).isTrue();
+
+        Path archive = archiveDir.resolve("transfers_p202001.csv.gz");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(csv).startsWith("id,from_card_id,to_card_id,amount,timestamp,status").contains("42.50");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.nastian.bankcards.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и ошибки одного эндпоинта.
+ * <p>
+ * Задержки хранятся в микросекундах в HdrHistogram (3 значащие цифры),
+ * запись из нескольких потоков без блокировок. Ответы не 2xx считаются
+ * ошибками отдельно по статусу 429 (ограничения частоты) и остальным.
+ */
+final class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    final String name;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long startNanos, int status) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        latencies.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+        if (status == 429) {
+            throttled.increment();
+        } else if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+    }
+
+    void recordFailure() {
+        errors.increment();
+    }
+
+    void reset() {
+        latencies.reset();
+        throttled.reset();
+        errors.reset();
+    }
+
+    long count() {
+        return latencies.getTotalCount();
+    }
+
+    long throttled() {
+        return throttled.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMillis() {
+        return latencies.getMaxValue() / 1000.0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.nastian.bankcards.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика прогона по эндпоинтам и текстовый отчет.
+ */
+final class LoadReport {
+
+    final EndpointStats login = new EndpointStats("POST /auth/login");
+    final EndpointStats listCards = new EndpointStats("GET /user/cards");
+    final EndpointStats balance = new EndpointStats("GET /user/cards/{id}/balance");
+    final EndpointStats transfer = new EndpointStats("POST /user/transfers");
+    /** Запросы без ответа (ошибка соединения, таймаут). */
+    final LongAdder failures = new LongAdder();
+
+    private final List<EndpointStats> endpoints = List.of(login, listCards, balance, transfer);
+
+    /**
+     * Сброс после прогрева: в отчет попадает только измеряемый интервал.
+     */
+    void reset() {
+        endpoints.forEach(EndpointStats::reset);
+        failures.reset();
+    }
+
+    String format(LoadTestOptions options, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        StringBuilder report = new StringBuilder()
+                .append("Load test ").append(LocalDateTime.now().withNano(0)).append('\n')
+                .append(String.format(Locale.ROOT, "users=%d cards-per-user=%d concurrency=%d warmup=%s duration=%s%n",
+                        options.users, options.cardsPerUser, options.concurrency, options.warmup, options.duration))
+                .append(String.format(Locale.ROOT, "mix login/list/balance/transfer=%d/%d/%d/%d properties=%s%n%n",
+                        options.loginWeight, options.listWeight, options.balanceWeight, options.transferWeight,
+                        options.applicationProperties))
+                .append(String.format(Locale.ROOT, "%-30s %10s %10s %8s %8s %9s %9s %9s %9s%n",
+                        "endpoint", "requests", "req/s", "429", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        long total = 0;
+        for (EndpointStats endpoint : endpoints) {
+            total += endpoint.count();
+            report.append(String.format(Locale.ROOT, "%-30s %10d %10.1f %8d %8d %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.name, endpoint.count(), endpoint.count() / seconds, endpoint.throttled(),
+                    endpoint.errors(), endpoint.percentileMillis(50), endpoint.percentileMillis(99),
+                    endpoint.percentileMillis(99.9), endpoint.maxMillis()));
+        }
+        return report.append(String.format(Locale.ROOT, "%-30s %10d %10.1f%n", "total", total, total / seconds))
+                .append(String.format(Locale.ROOT, "connection failures: %d%n", failures.sum()))
+                .toString();
+    }
+
+    static void write(Path file, String report) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, report);
+    }
+}
@@ -0,0 +1,77 @@
+package com.nastian.bankcards.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного прогона из аргументов {@code --имя=значение}.
+ * <p>
+ * Неизвестные аргументы передаются приложению как свойства Spring
+ * (например, {@code --spring.profiles.active=prod}).
+ */
+final class LoadTestOptions {
+
+    /** JDBC URL локальной базы; без него PostgreSQL запускается через Testcontainers. */
+    final String dbUrl;
+    final String dbUsername;
+    final String dbPassword;
+    /** Пользователей в наборе данных, каждый с {@link #cardsPerUser} картами. */
+    final int users;
+    final int cardsPerUser;
+    /** Число одновременных виртуальных пользователей (потоков). */
+    final int concurrency;
+    final Duration warmup;
+    final Duration duration;
+    /** Доли операций в смеси: вход, список карт, баланс, перевод. */
+    final int loginWeight;
+    final int listWeight;
+    final int balanceWeight;
+    final int transferWeight;
+    final Path report;
+    final Map<String, String> applicationProperties;
+
+    private LoadTestOptions(Map<String, String> args) {
+        dbUrl = args.remove("db-url");
+        dbUsername = args.getOrDefault("db-username", "postgres");
+        dbPassword = args.getOrDefault("db-password", "postgres");
+        args.remove("db-username");
+        args.remove("db-password");
+        users = Integer.parseInt(take(args, "users", "200"));
+        cardsPerUser = Integer.parseInt(take(args, "cards-per-user", "2"));
+        concurrency = Integer.parseInt(take(args, "concurrency", "16"));
+        warmup = Duration.parse("PT" + take(args, "warmup", "15s"));
+        duration = Duration.parse("PT" + take(args, "duration", "60s"));
+        loginWeight = Integer.parseInt(take(args, "login-weight", "5"));
+        listWeight = Integer.parseInt(take(args, "list-weight", "40"));
+        balanceWeight = Integer.parseInt(take(args, "balance-weight", "35"));
+        transferWeight = Integer.parseInt(take(args, "transfer-weight", "20"));
+        report = Path.of(take(args, "report", "target/loadtest-report.txt"));
+        applicationProperties = args;
+
+        if (cardsPerUser < 2) {
+            throw new IllegalArgumentException("cards-per-user must be at least 2 for transfers");
+        }
+        if (loginWeight + listWeight + balanceWeight + transferWeight <= 0) {
+            throw new IllegalArgumentException("At least one operation weight must be positive");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    private static String take(Map<String, String> args, String name, String defaultValue) {
+        String value = args.remove(name);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,183 @@
+package com.nastian.bankcards.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nastian.bankcards.BankCardsApplication;
+import com.nastian.bankcards.util.CardNumberGenerator;
+import com.nastian.bankcards.util.CardNumberMasker;
+import com.nastian.bankcards.util.EncryptionUtil;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Нагрузочный прогон приложения целиком: HTTP через Tomcat, JWT, PostgreSQL.
+ * <p>
+ * Поднимает приложение на случайном порту против локальной базы ({@code --db-url=...})
+ * или PostgreSQL из Testcontainers, создает пользователей {@code loadtest<N>} с картами
+ * (повторный запуск на той же базе переиспользует их), затем {@code concurrency}
+ * виртуальных пользователей выполняют смесь входа, списка карт, баланса и переводов.
+ * После прогрева статистика сбрасывается; пропускная способность и p50/p99/p99.9
+ * по эндпоинтам выводятся и пишутся в {@code --report}.
+ * <p>
+ * Ограничения частоты запросов и попыток входа отключены, иначе прогон измерял бы
+ * лимиты, а не сервис; включаются аргументами {@code --security.rate-limit.enabled=true}.
+ */
+public final class LoadTestRunner {
+
+    private static final String USERNAME_PREFIX = "loadtest";
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        PostgreSQLContainer<?> postgres = null;
+        String dbUrl = options.dbUrl;
+        String dbUsername = options.dbUsername;
+        String dbPassword = options.dbPassword;
+        if (dbUrl == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15");
+            postgres.start();
+            dbUrl = postgres.getJdbcUrl();
+            dbUsername = postgres.getUsername();
+            dbPassword = postgres.getPassword();
+        }
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", dbUrl);
+        properties.put("spring.datasource.username", dbUsername);
+        properties.put("spring.datasource.password", dbPassword);
+        properties.put("security.rate-limit.enabled", "false");
+        properties.put("security.login-throttle.enabled", "false");
+        properties.putAll(options.applicationProperties);
+
+        // Аргументы командной строки, а не properties(): значения по умолчанию перекрываются application.yml
+        String[] applicationArgs = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BankCardsApplication.class)
+                .run(applicationArgs);
+        try {
+            List<VirtualUser.Account> accounts = seed(context, options);
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + context.getEnvironment().getProperty("server.servlet.context-path", ""));
+
+            String report = run(baseUri, context.getBean(ObjectMapper.class), accounts, options);
+            LoadReport.write(options.report, report);
+            System.out.println();
+            System.out.println(report);
+            System.out.println("Report written to " + options.report.toAbsolutePath());
+        } finally {
+            context.close();
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private static String run(URI baseUri, ObjectMapper objectMapper, List<VirtualUser.Account> accounts,
+                                  LoadTestOptions options) throws Exception {
+        LoadReport report = new LoadReport();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency);
+        for (int i = 0; i < options.concurrency; i++) {
+            executor.execute(new VirtualUser(client, baseUri, objectMapper, accounts, options, report,
+                    running::get));
+        }
+
+        Thread.sleep(options.warmup.toMillis());
+        report.reset();
+        long start = System.nanoTime();
+        Thread.sleep(options.duration.toMillis());
+        String formatted = report.format(options, Duration.ofNanos(System.nanoTime() - start));
+
+        running.set(false);
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return formatted;
+    }
+
+    /**
+     * Пользователи {@code loadtest0..users-1} с одним хэшем пароля (BCrypt считается один раз)
+     * и недостающими картами с номерами в формате приложения; балансы восстанавливаются.
+     */
+    private static List<VirtualUser.Account> seed(ConfigurableApplicationContext context, LoadTestOptions options) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(VirtualUser.PASSWORD);
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < options.users; i++) {
+            users.add(new Object[]{USERNAME_PREFIX + i, USERNAME_PREFIX + i + "@example.com", passwordHash});
+        }
+        jdbc.batchUpdate("INSERT INTO users (username, email, password, role, token_version, created_at) " +
+                "VALUES (?, ?, ?, 'USER', 0, now()) ON CONFLICT DO NOTHING", users);
+
+        Map<String, Long> userIds = new HashMap<>();
+        jdbc.query("SELECT id, username FROM users WHERE username LIKE '" + USERNAME_PREFIX + "%'",
+                rs -> {
+                    userIds.put(rs.getString("username"), rs.getLong("id"));
+                });
+        Map<Long, List<Long>> cards = cardsByUser(jdbc);
+
+        EncryptionUtil encryptionUtil = context.getBean(EncryptionUtil.class);
+        CardNumberGenerator generator = context.getBean(CardNumberGenerator.class);
+        CardNumberMasker masker = context.getBean(CardNumberMasker.class);
+        List<Object[]> newCards = new ArrayList<>();
+        for (Map.Entry<String, Long> user : userIds.entrySet()) {
+            int existing = cards.getOrDefault(user.getValue(), List.of()).size();
+            for (int i = existing; i < options.cardsPerUser; i++) {
+                String number = generator.generate();
+                newCards.add(new Object[]{encryptionUtil.encrypt(number), masker.mask(number),
+                        user.getKey().toUpperCase(), LocalDate.now().plusYears(3), user.getValue()});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO cards (card_number_encrypted, card_number_masked, card_holder_name, " +
+                "expiration_date, status, balance, user_id, created_at) VALUES (?, ?, ?, ?, 'ACTIVE', 0, ?, now())",
+                newCards);
+        jdbc.update("UPDATE cards SET balance = ?, status = 'ACTIVE' WHERE user_id IN " +
+                "(SELECT id FROM users WHERE username LIKE '" + USERNAME_PREFIX + "%')", INITIAL_BALANCE);
+
+        cards = cardsByUser(jdbc);
+        List<VirtualUser.Account> accounts = new ArrayList<>();
+        for (int i = 0; i < options.users; i++) {
+            String username = USERNAME_PREFIX + i;
+            List<Long> cardIds = cards.get(userIds.get(username));
+            accounts.add(new VirtualUser.Account(username, List.copyOf(cardIds.subList(0, options.cardsPerUser))));
+        }
+        return accounts;
+    }
+
+    private static Map<Long, List<Long>> cardsByUser(JdbcTemplate jdbc) {
+        Map<Long, List<Long>> cards = new HashMap<>();
+        jdbc.query("SELECT c.id, c.user_id FROM cards c JOIN users u ON u.id = c.user_id " +
+                "WHERE u.username LIKE '" + USERNAME_PREFIX + "%' ORDER BY c.id", rs -> {
+            cards.computeIfAbsent(rs.getLong("user_id"), id -> new ArrayList<>()).add(rs.getLong("id"));
+        });
+        return cards;
+    }
+}
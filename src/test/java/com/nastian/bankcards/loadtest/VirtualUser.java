@@ -0,0 +1,120 @@
+package com.nastian.bankcards.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Виртуальный пользователь: в цикле выбирает случайного пользователя из набора
+ * данных и операцию по весам, ждет ответа и сразу выполняет следующую
+ * (закрытая модель нагрузки: при замедлении сервера падает и темп запросов).
+ */
+final class VirtualUser implements Runnable {
+
+    /**
+     * Пользователь из набора данных, токен общий для всех виртуальных пользователей.
+     */
+    static final class Account {
+        final String username;
+        final List<Long> cardIds;
+        volatile String token;
+
+        Account(String username, List<Long> cardIds) {
+            this.username = username;
+            this.cardIds = cardIds;
+        }
+    }
+
+    static final String PASSWORD = "loadtest123";
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final List<Account> accounts;
+    private final LoadTestOptions options;
+    private final LoadReport report;
+    private final BooleanSupplier running;
+
+    VirtualUser(HttpClient client, URI baseUri, ObjectMapper objectMapper, List<Account> accounts,
+                LoadTestOptions options, LoadReport report, BooleanSupplier running) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.accounts = accounts;
+        this.options = options;
+        this.report = report;
+        this.running = running;
+    }
+
+    @Override
+    public void run() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int total = options.loginWeight + options.listWeight + options.balanceWeight + options.transferWeight;
+        while (running.getAsBoolean()) {
+            Account account = accounts.get(random.nextInt(accounts.size()));
+            int pick = random.nextInt(total);
+            try {
+                if (account.token == null || (pick -= options.loginWeight) < 0) {
+                    login(account);
+                } else if ((pick -= options.listWeight) < 0) {
+                    send(report.listCards, account, get("/user/cards?page=0&size=10"));
+                } else if ((pick -= options.balanceWeight) < 0) {
+                    Long cardId = account.cardIds.get(random.nextInt(account.cardIds.size()));
+                    send(report.balance, account, get("/user/cards/" + cardId + "/balance"));
+                } else {
+                    int from = random.nextInt(account.cardIds.size());
+                    int to = (from + 1 + random.nextInt(account.cardIds.size() - 1)) % account.cardIds.size();
+                    String body = "{\"fromCardId\":" + account.cardIds.get(from)
+                            + ",\"toCardId\":" + account.cardIds.get(to) + ",\"amount\":0.01}";
+                    send(report.transfer, account, post("/user/transfers", body));
+                }
+            } catch (IOException e) {
+                report.failures.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void login(Account account) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", account.username, "password", PASSWORD));
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(post("/auth/login", body).build(),
+                HttpResponse.BodyHandlers.ofString());
+        report.login.record(start, response.statusCode());
+        if (response.statusCode() == 200) {
+            account.token = objectMapper.readTree(response.body()).get("token").asText();
+        }
+    }
+
+    private void send(EndpointStats endpoint, Account account, HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request.header("Authorization", "Bearer " + account.token).build(),
+                HttpResponse.BodyHandlers.discarding());
+        endpoint.record(start, response.statusCode());
+        if (response.statusCode() == 401) {
+            // Access токен истек (15 минут): следующий запрос этого пользователя выполнит вход
+            account.token = null;
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(baseUri.getPath() + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(baseUri.getPath() + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+}
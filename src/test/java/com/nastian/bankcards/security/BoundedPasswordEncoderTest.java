@@ -0,0 +1,100 @@
+package com.nastian.bankcards.security;
+
+import com.nastian.bankcards.config.PasswordHashingProperties;
+import com.nastian.bankcards.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Хэширование и проверка выполняются через пул")
+    void encodeAndMatches() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 4, 1, 1, 1);
+
+        String hash = encoder.encode("password123");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("password123", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Хэш с меньшим cost требует перехэширования, с большим — нет")
+    void upgradeEncoding_LowerCost() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 5, 1, 1, 1);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password123"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("password123"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password123"))).isFalse();
+        assertThat(encoder.upgradeEncoding("plain-text")).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("При переполнении очереди запрос отклоняется")
+    void encode_QueueFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = mock(PasswordEncoder.class);
+        when(blocking.encode(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        encoder = new BoundedPasswordEncoder(blocking, 4, 1, 0, 3);
+
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> encoder.encode("second"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(3L);
+
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+
+    @Test
+    @DisplayName("Cost берется из настроек, недопустимый cost останавливает старт")
+    void create_UsesConfiguredStrength() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(4);
+        encoder = BoundedPasswordEncoder.create(properties);
+        assertThat(encoder.getStrength()).isEqualTo(4);
+
+        properties.setStrength(3);
+        assertThatThrownBy(() -> BoundedPasswordEncoder.create(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("security.password-hashing.strength");
+    }
+
+    @Test
+    @DisplayName("Подобранный cost не выходит за заданные границы")
+    void calibrate_WithinBounds() {
+        assertThat(BoundedPasswordEncoder.calibrate(0, 4, 6)).isEqualTo(4);
+        assertThat(BoundedPasswordEncoder.calibrate(60_000, 4, 6)).isEqualTo(6);
+    }
+}
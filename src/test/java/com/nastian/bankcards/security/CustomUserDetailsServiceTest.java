@@ -0,0 +1,160 @@
+package com.nastian.bankcards.security;
+
+import com.nastian.bankcards.config.UserCacheProperties;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.entity.UserRole;
+import com.nastian.bankcards.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailsServiceTest {
+
+    private UserRepository userRepository;
+    private TokenVersionRegistry tokenVersionRegistry;
+    private UserCacheProperties properties;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenVersionRegistry = mock(TokenVersionRegistry.class);
+        when(tokenVersionRegistry.isCurrent(anyLong(), anyInt())).thenReturn(true);
+        properties = new UserCacheProperties();
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("tester");
+        user.setPassword("hash");
+        user.setRole(UserRole.USER);
+        when(userRepository.findByUsername("tester")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @DisplayName("Повторная загрузка пользователя берется из кэша")
+    void loadUserByUsername_SecondCallIsHit() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, tokenVersionRegistry, properties);
+
+        UserDetails first = service.loadUserByUsername("tester");
+        UserDetails second = service.loadUserByUsername("tester");
+
+        assertThat(second).isSameAs(first);
+        assertThat(service.getCacheStats().hitCount()).isEqualTo(1);
+        verify(userRepository, times(1)).findByUsername("tester");
+    }
+
+    @Test
+    @DisplayName("Статистика кэша публикуется в реестр метрик")
+    void bindTo_ExportsCacheMetrics() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, tokenVersionRegistry, properties);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+
+        service.loadUserByUsername("tester");
+        service.loadUserByUsername("tester");
+
+        assertThat(registry.get("cache.gets").tags("cache", CustomUserDetailsService.CACHE_NAME, "result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", CustomUserDetailsService.CACHE_NAME, "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Запись с устаревшей версией токенов перечитывается из БД")
+    void loadUserByUsername_StaleVersionReloaded() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, tokenVersionRegistry, properties);
+        service.loadUserByUsername("tester");
+
+        // Роль изменена на другом узле: версия в БД увеличилась
+        User changed = new User();
+        changed.setId(1L);
+        changed.setUsername("tester");
+        changed.setPassword("hash");
+        changed.setRole(UserRole.ADMIN);
+        changed.setTokenVersion(1);
+        when(userRepository.findByUsername("tester")).thenReturn(Optional.of(changed));
+        when(tokenVersionRegistry.isCurrent(1L, 0)).thenReturn(false);
+
+        CustomUserDetails reloaded = (CustomUserDetails) service.loadUserByUsername("tester");
+
+        assertThat(reloaded.getTokenVersion()).isEqualTo(1);
+        assertThat(reloaded.getRole()).isEqualTo(UserRole.ADMIN);
+        verify(userRepository, times(2)).findByUsername("tester");
+    }
+
+    @Test
+    @DisplayName("Пользователь, удаленный на другом узле, не загружается из кэша")
+    void loadUserByUsername_DeletedElsewhere() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, tokenVersionRegistry, properties);
+        service.loadUserByUsername("tester");
+
+        when(userRepository.findByUsername("tester")).thenReturn(Optional.empty());
+        when(tokenVersionRegistry.isCurrent(1L, 0)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.loadUserByUsername("tester"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("После evict пользователь загружается из БД заново")
+    void evict_ReloadsUser() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, tokenVersionRegistry, properties);
+        service.loadUserByUsername("tester");
+
+        user.setRole(UserRole.ADMIN);
+        service.evict("tester");
+        CustomUserDetails reloaded = (CustomUserDetails) service.loadUserByUsername("tester");
+
+        assertThat(reloaded.getRole()).isEqualTo(UserRole.ADMIN);
+        verify(userRepository, times(2)).findByUsername("tester");
+    }
+
+    @Test
+    @DisplayName("Отсутствующий пользователь не кэшируется")
+    void loadUserByUsername_NotFoundNotCached() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, tokenVersionRegistry, properties);
+
+        assertThatThrownBy(() -> service.loadUserByUsername("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> service.loadUserByUsername("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    @DisplayName("Перехэшированный пароль сохраняется и сбрасывает кэш")
+    void updatePassword_SavesAndEvicts() {
+        when(userRepository.save(user)).thenReturn(user);
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, tokenVersionRegistry, properties);
+        UserDetails cached = service.loadUserByUsername("tester");
+
+        UserDetails updated = service.updatePassword(cached, "new-hash");
+
+        assertThat(updated.getPassword()).isEqualTo("new-hash");
+        assertThat(service.loadUserByUsername("tester").getPassword()).isEqualTo("new-hash");
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    @DisplayName("Выключенный кэш загружает пользователя каждый раз")
+    void loadUserByUsername_Disabled() {
+        properties.setEnabled(false);
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, tokenVersionRegistry, properties);
+
+        service.loadUserByUsername("tester");
+        service.loadUserByUsername("tester");
+
+        verify(userRepository, times(2)).findByUsername("tester");
+    }
+}
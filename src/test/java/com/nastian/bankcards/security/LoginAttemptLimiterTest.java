@@ -0,0 +1,175 @@
+package com.nastian.bankcards.security;
+
+import com.nastian.bankcards.config.LoginThrottleProperties;
+import com.nastian.bankcards.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptLimiterTest {
+
+    private LoginThrottleProperties properties;
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoginThrottleProperties();
+        properties.setWindow(60000);
+        properties.setMaxAttemptsPerUsername(3);
+        properties.setMaxAttemptsPerIp(5);
+        properties.setSlots(1024);
+    }
+
+    private LoginAttemptLimiter newLimiter() {
+        return new LoginAttemptLimiter(properties, now::get);
+    }
+
+    @Test
+    @DisplayName("Попытки сверх лимита на username отклоняются")
+    void recordAttempt_UsernameLimitExceeded() {
+        LoginAttemptLimiter limiter = newLimiter();
+
+        for (int i = 0; i < 3; i++) {
+            limiter.recordAttempt("tester", "10.0.0." + i);
+        }
+
+        assertThatThrownBy(() -> limiter.recordAttempt("Tester", "10.0.0.9"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageContaining("Too many login attempts")
+                .satisfies(e -> assertThat(((TooManyRequestsException) e).getRetryAfterSeconds()).isPositive());
+        assertThatCode(() -> limiter.recordAttempt("other", "10.0.0.9")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Попытки сверх лимита с одного IP отклоняются для любых username")
+    void recordAttempt_AddressLimitExceeded() {
+        LoginAttemptLimiter limiter = newLimiter();
+
+        for (int i = 0; i < 5; i++) {
+            limiter.recordAttempt("user" + i, "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> limiter.recordAttempt("user9", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> limiter.recordAttempt("user9", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Счетчик затухает по скользящему окну")
+    void recordAttempt_WindowSlides() {
+        LoginAttemptLimiter limiter = newLimiter();
+        now.set(60000L * 100);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.recordAttempt("tester", "10.0.0.1");
+        }
+
+        now.addAndGet(60000L);
+        assertThatThrownBy(() -> limiter.recordAttempt("tester", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        now.addAndGet(40000L);
+        assertThatCode(() -> limiter.recordAttempt("tester", "10.0.0.1")).doesNotThrowAnyException();
+
+        now.addAndGet(120000L);
+        for (int i = 0; i < 3; i++) {
+            limiter.recordAttempt("tester", "10.0.0.1");
+        }
+    }
+
+    @Test
+    @DisplayName("Успешные входы не расходуют лимит")
+    void recordSuccess_ReleasesAttempt() {
+        LoginAttemptLimiter limiter = newLimiter();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.recordAttempt("tester", "10.0.0.1");
+            limiter.recordSuccess("Tester", "10.0.0.1");
+        }
+
+        for (int i = 0; i < 3; i++) {
+            limiter.recordAttempt("tester", "10.0.0.1");
+        }
+        assertThatThrownBy(() -> limiter.recordAttempt("tester", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    @DisplayName("Отказ по username не расходует лимит IP")
+    void recordAttempt_UsernameRejectionReleasesAddress() {
+        LoginAttemptLimiter limiter = newLimiter();
+
+        for (int i = 0; i < 3; i++) {
+            limiter.recordAttempt("tester", "10.0.0.1");
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> limiter.recordAttempt("tester", "10.0.0.1"))
+                    .isInstanceOf(TooManyRequestsException.class);
+        }
+
+        limiter.recordAttempt("other", "10.0.0.1");
+        limiter.recordAttempt("other", "10.0.0.1");
+        assertThatThrownBy(() -> limiter.recordAttempt("other", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    @DisplayName("Одновременные попытки не проходят лимит")
+    void recordAttempt_ConcurrentBurst() throws Exception {
+        LoginAttemptLimiter limiter = newLimiter();
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String address = "10.0.1." + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        limiter.recordAttempt("tester", address);
+                        accepted.incrementAndGet();
+                    } catch (TooManyRequestsException ignored) {
+                        // отклонено лимитом
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(accepted.get()).isBetween(1, 3);
+    }
+
+    @Test
+    @DisplayName("Отключенный лимит не учитывает попытки")
+    void recordAttempt_Disabled() {
+        properties.setEnabled(false);
+        LoginAttemptLimiter limiter = newLimiter();
+
+        assertThatCode(() -> {
+            for (int i = 0; i < 100; i++) {
+                limiter.recordAttempt("tester", "10.0.0.1");
+            }
+        }).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,146 @@
+package com.nastian.bankcards.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nastian.bankcards.config.RateLimitProperties;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.entity.UserRole;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private FilterChain chain;
+    private final AtomicLong nanos = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setMaxKeys(1024);
+        properties.setTransfers(new RateLimitProperties.Budget(2, 1));
+        chain = mock(FilterChain.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private RateLimitFilter newFilter() {
+        return new RateLimitFilter(properties, new ObjectMapper().registerModule(new JavaTimeModule()), nanos::get);
+    }
+
+    private void authenticate(long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setRole(UserRole.USER);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    private MockHttpServletResponse transfer(RateLimitFilter filter) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/user/transfers"), response, chain);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Запросы сверх бюджета отклоняются с 429 и заголовками лимита")
+    void doFilter_BudgetExhausted() throws Exception {
+        RateLimitFilter filter = newFilter();
+        authenticate(1L);
+
+        MockHttpServletResponse first = transfer(filter);
+        assertThat(first.getHeader(RateLimitFilter.LIMIT_HEADER)).isEqualTo("2");
+        assertThat(first.getHeader(RateLimitFilter.REMAINING_HEADER)).isEqualTo("1");
+        assertThat(transfer(filter).getHeader(RateLimitFilter.REMAINING_HEADER)).isEqualTo("0");
+
+        MockHttpServletResponse rejected = transfer(filter);
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("Rate limit exceeded");
+        verify(chain, times(2)).doFilter(any(), any());
+
+        nanos.addAndGet(1_000_000_000L);
+        assertThat(transfer(filter).getStatus()).isEqualTo(200);
+        verify(chain, times(3)).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Бюджеты раздельные для пользователей и групп")
+    void doFilter_SeparateBudgets() throws Exception {
+        RateLimitFilter filter = newFilter();
+        authenticate(1L);
+        transfer(filter);
+        transfer(filter);
+        assertThat(transfer(filter).getStatus()).isEqualTo(429);
+
+        MockHttpServletResponse cards = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/user/cards"), cards, chain);
+        assertThat(cards.getStatus()).isEqualTo(200);
+        assertThat(cards.getHeader(RateLimitFilter.LIMIT_HEADER)).isEqualTo("60");
+
+        authenticate(2L);
+        assertThat(transfer(filter).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("У каждого ключа своя корзина, даже при таблице на одну запись")
+    void acquire_KeysHaveSeparateBuckets() {
+        RateLimitFilter.GcraTable table = new RateLimitFilter.GcraTable(1, new RateLimitProperties.Budget(2, 1));
+        long now = 1_000_000L;
+
+        assertThat(table.acquire(1L, now)).isPositive();
+        assertThat(table.acquire(1L, now)).isPositive();
+        assertThat(table.acquire(1L, now)).isNegative();
+
+        for (long key = 2; key < 100; key++) {
+            assertThat(table.acquire(key, now)).isPositive();
+        }
+    }
+
+    @Test
+    @DisplayName("Анонимные и неограничиваемые запросы пропускаются без заголовков")
+    void doFilter_NotLimited() throws Exception {
+        RateLimitFilter filter = newFilter();
+
+        MockHttpServletResponse anonymous = transfer(filter);
+        assertThat(anonymous.getHeader(RateLimitFilter.LIMIT_HEADER)).isNull();
+
+        authenticate(1L);
+        MockHttpServletResponse block = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/user/cards/1/block"), block, chain);
+        assertThat(block.getHeader(RateLimitFilter.LIMIT_HEADER)).isNull();
+
+        verify(chain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Группа определяется по пути и методу")
+    void resolveGroup() {
+        assertThat(RateLimitFilter.resolveGroup(new MockHttpServletRequest("GET", "/admin/users")))
+                .isEqualTo(RateLimitFilter.Group.ADMIN);
+        assertThat(RateLimitFilter.resolveGroup(new MockHttpServletRequest("POST", "/user/transfers")))
+                .isEqualTo(RateLimitFilter.Group.TRANSFERS);
+        assertThat(RateLimitFilter.resolveGroup(new MockHttpServletRequest("GET", "/user/cards/5/balance")))
+                .isEqualTo(RateLimitFilter.Group.CARDS_READ);
+        assertThat(RateLimitFilter.resolveGroup(new MockHttpServletRequest("POST", "/user/cards"))).isNull();
+        assertThat(RateLimitFilter.resolveGroup(new MockHttpServletRequest("GET", "/administrator"))).isNull();
+    }
+}
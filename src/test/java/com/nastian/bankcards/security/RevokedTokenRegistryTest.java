@@ -0,0 +1,96 @@
+package com.nastian.bankcards.security;
+
+import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.entity.RevokedToken;
+import com.nastian.bankcards.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RevokedTokenRegistryTest {
+
+    private RevokedTokenRepository repository;
+    private RevokedTokenRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        registry = new RevokedTokenRegistry(repository, new JwtProperties());
+    }
+
+    private static RevokedToken revoked(String jti, LocalDateTime revokedAt) {
+        RevokedToken token = new RevokedToken(jti, LocalDateTime.now().plusMinutes(15));
+        token.setRevokedAt(revokedAt);
+        return token;
+    }
+
+    @Test
+    @DisplayName("До построения фильтра проверка выполняется по БД")
+    void isRevoked_BeforeRebuildChecksDatabase() {
+        when(repository.existsByJti("jti-1")).thenReturn(true);
+
+        assertThat(registry.isRevoked("jti-1")).isTrue();
+        verify(repository).existsByJti("jti-1");
+    }
+
+    @Test
+    @DisplayName("Неотозванный токен проверяется без обращения к БД")
+    void isRevoked_NotRevokedSkipsDatabase() {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(revoked("jti-1", LocalDateTime.now())));
+        registry.rebuild();
+
+        for (int i = 0; i < 1000; i++) {
+            registry.isRevoked(UUID.randomUUID().toString());
+        }
+
+        verify(repository, atMost(5)).existsByJti(anyString());
+    }
+
+    @Test
+    @DisplayName("Отозванный токен подтверждается по БД")
+    void isRevoked_RevokedConfirmedByDatabase() {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(revoked("jti-1", LocalDateTime.now())));
+        when(repository.existsByJti("jti-1")).thenReturn(true);
+        registry.rebuild();
+
+        assertThat(registry.isRevoked("jti-1")).isTrue();
+        verify(repository).existsByJti("jti-1");
+    }
+
+    @Test
+    @DisplayName("Локальный отзыв сразу попадает в фильтр")
+    void revoke_AddsToFilter() {
+        registry.rebuild();
+
+        registry.revoke("jti-2", new Date(System.currentTimeMillis() + 60000));
+        when(repository.existsByJti("jti-2")).thenReturn(true);
+
+        assertThat(registry.isRevoked("jti-2")).isTrue();
+        verify(repository).insertIfAbsent(eq("jti-2"), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Опрос добавляет отзывы с других узлов")
+    void poll_AddsRemoteRevocations() {
+        LocalDateTime revokedAt = LocalDateTime.now();
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(revoked("jti-1", revokedAt)));
+        registry.rebuild();
+
+        when(repository.findByRevokedAtAfter(any())).thenReturn(List.of(revoked("jti-3", revokedAt.plusSeconds(1))));
+        when(repository.existsByJti("jti-3")).thenReturn(true);
+        registry.poll();
+
+        assertThat(registry.isRevoked("jti-3")).isTrue();
+        verify(repository).findByRevokedAtAfter(revokedAt.minusMinutes(1));
+    }
+}
@@ -0,0 +1,77 @@
+package com.nastian.bankcards.security;
+
+import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenVersionRegistryTest {
+
+    private TokenVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0));
+        registry = new TokenVersionRegistry(userRepository, new JwtProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Новая версия применяется только после коммита")
+    void update_AppliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        registry.update(1L, 1);
+        assertThat(registry.isCurrent(1L, 0)).isTrue();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(registry.isCurrent(1L, 0)).isFalse();
+        assertThat(registry.isCurrent(1L, 1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("При откате транзакции токены не отзываются")
+    void revoke_IgnoredOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        registry.revoke(1L);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(registry.isCurrent(1L, 0)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Без транзакции изменение применяется сразу")
+    void revoke_WithoutTransaction() {
+        registry.revoke(1L);
+
+        assertThat(registry.isCurrent(1L, 0)).isFalse();
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,121 @@
+package com.nastian.bankcards.security;
+
+import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.entity.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private JwtProperties properties;
+    private JwtTokenProvider tokenProvider;
+    private String token;
+    private final AtomicLong nanos = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtProperties();
+        properties.setSecret("test-secret-key-for-jwt-signature-at-least-256-bits");
+        properties.setExpiration(60000);
+        properties.getTokenCache().setEnabled(true);
+        tokenProvider = spy(new JwtTokenProvider(properties));
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("tester");
+        user.setRole(UserRole.USER);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    private VerifiedTokenCache newCache() {
+        return new VerifiedTokenCache(tokenProvider, properties, Clock.systemUTC(), nanos::get);
+    }
+
+    @Test
+    @DisplayName("Повторный запрос с тем же токеном не проверяет подпись")
+    void verify_SecondCallIsHit() {
+        VerifiedTokenCache cache = newCache();
+
+        Claims first = cache.verify(token);
+        Claims second = cache.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        verify(tokenProvider, times(1)).parseAndVerify(token);
+    }
+
+    @Test
+    @DisplayName("Попадания и промахи публикуются в реестр метрик")
+    void bindTo_ExportsCacheMetrics() {
+        VerifiedTokenCache cache = newCache();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.verify(token);
+        cache.verify(token);
+        cache.verify(token);
+
+        assertThat(registry.get("cache.gets").tags("cache", VerifiedTokenCache.CACHE_NAME, "result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.gets").tags("cache", VerifiedTokenCache.CACHE_NAME, "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").tags("cache", VerifiedTokenCache.CACHE_NAME).gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Запись удаляется по истечении exp токена")
+    void verify_EntryExpiresWithToken() {
+        VerifiedTokenCache cache = newCache();
+        cache.verify(token);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        cache.verify(token);
+
+        assertThat(cache.stats().missCount()).isEqualTo(2);
+        verify(tokenProvider, times(2)).parseAndVerify(token);
+    }
+
+    @Test
+    @DisplayName("Невалидный токен не кэшируется")
+    void verify_InvalidTokenNotCached() {
+        VerifiedTokenCache cache = newCache();
+
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        String tampered = token.substring(0, token.lastIndexOf('.') + 1)
+                + (signature.charAt(0) == 'A' ? 'B' : 'A') + signature.substring(1);
+
+        assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Выключенный кэш проверяет токен каждый раз")
+    void verify_Disabled() {
+        properties.getTokenCache().setEnabled(false);
+        VerifiedTokenCache cache = newCache();
+
+        cache.verify(token);
+        cache.verify(token);
+
+        assertThat(cache.isEnabled()).isFalse();
+        verify(tokenProvider, times(2)).parseAndVerify(token);
+    }
+}
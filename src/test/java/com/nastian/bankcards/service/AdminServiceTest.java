@@ -1,14 +1,20 @@
 package com.nastian.bankcards.service;
 
 import com.nastian.bankcards.dto.CardRequest;
+import com.nastian.bankcards.dto.CardView;
+import com.nastian.bankcards.dto.TransferView;
 import com.nastian.bankcards.entity.Card;
 import com.nastian.bankcards.entity.CardStatus;
+import com.nastian.bankcards.entity.TransferStatus;
 import com.nastian.bankcards.entity.User;
 import com.nastian.bankcards.entity.UserRole;
 import com.nastian.bankcards.exception.CardNotFoundException;
 import com.nastian.bankcards.exception.UserNotFoundException;
 import com.nastian.bankcards.repository.CardRepository;
+import com.nastian.bankcards.repository.TransferRepository;
 import com.nastian.bankcards.repository.UserRepository;
+import com.nastian.bankcards.security.CustomUserDetailsService;
+import com.nastian.bankcards.security.TokenVersionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,10 +26,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -39,15 +51,25 @@ class AdminServiceTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private TransferRepository transferRepository;
+
     @Mock
     private CardService cardService;
 
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
     @InjectMocks
     private AdminService adminService;
 
     private User user;
     private User admin;
     private Card card;
+    private CardView cardView;
     private CardRequest cardRequest;
     private Pageable pageable;
 
@@ -71,6 +93,9 @@ class AdminServiceTest {
         card.setCardHolderName("Test User");
         card.setStatus(CardStatus.ACTIVE);
 
+        cardView = new CardView(1L, "**** **** **** 1234", "Test User", LocalDate.now().plusYears(1),
+                CardStatus.ACTIVE, BigDecimal.ZERO, 1L, null);
+
         cardRequest = new CardRequest();
         cardRequest.setCardHolderName("New Card");
         cardRequest.setExpirationDate(LocalDate.now().plusYears(1));
@@ -95,16 +120,40 @@ class AdminServiceTest {
     @DisplayName("Поиск пользователей - успешно")
     void getAllUsers_WithSearch_Success() {
         Page<User> page = new PageImpl<>(List.of(user));
-        when(userRepository.searchUsers("test", pageable)).thenReturn(page);
+        when(userRepository.searchUsers("%test%", pageable)).thenReturn(page);
 
-        Page<User> result = adminService.getAllUsers("test", pageable);
+        Page<User> result = adminService.getAllUsers(" Test ", pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
-        verify(userRepository).searchUsers("test", pageable);
+        verify(userRepository).searchUsers("%test%", pageable);
         verify(userRepository, never()).findAll(any(Pageable.class));
     }
 
+    @Test
+    @DisplayName("Поиск пользователей - спецсимволы LIKE экранируются, сортировка по столбцам")
+    void getAllUsers_SearchPatternAndSort() {
+        Pageable sorted = PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("username")));
+        when(userRepository.searchUsers(any(), any())).thenReturn(Page.empty());
+
+        adminService.getAllUsers("50%_a\\b", sorted);
+
+        verify(userRepository).searchUsers("%50\\%\\_a\\\\b%",
+                PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "created_at").and(Sort.by("username"))));
+    }
+
+    @Test
+    @DisplayName("Поиск пользователей - неподдерживаемое поле сортировки")
+    void getAllUsers_UnsupportedSort() {
+        Pageable sorted = PageRequest.of(0, 10, Sort.by("password"));
+
+        assertThatThrownBy(() -> adminService.getAllUsers("test", sorted))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("password");
+
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @DisplayName("Получение пользователя по ID - успешно")
     void getUserById_Success() {
@@ -128,20 +177,23 @@ class AdminServiceTest {
     @Test
     @DisplayName("Изменение роли пользователя - успешно")
     void updateUserRole_Success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(user));
         when(userRepository.save(any(User.class))).thenReturn(user);
 
         User result = adminService.updateUserRole(1L, UserRole.ADMIN);
 
         assertThat(result).isNotNull();
         assertThat(result.getRole()).isEqualTo(UserRole.ADMIN);
+        assertThat(result.getTokenVersion()).isEqualTo(1);
         verify(userRepository).save(user);
+        verify(tokenVersionRegistry).update(1L, 1);
+        verify(userDetailsService).evict(user.getUsername());
     }
 
     @Test
     @DisplayName("Изменение роли пользователя - пользователь не найден")
     void updateUserRole_UserNotFound() {
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> adminService.updateUserRole(999L, UserRole.ADMIN))
                 .isInstanceOf(UserNotFoundException.class);
     }
@@ -149,17 +201,18 @@ class AdminServiceTest {
     @Test
     @DisplayName("Удаление пользователя - успешно")
     void deleteUser_Success() {
-        when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         adminService.deleteUser(1L);
-        verify(userRepository).deleteById(1L);
+        verify(userRepository).delete(user);
+        verify(tokenVersionRegistry).revoke(1L);
+        verify(userDetailsService).evict(user.getUsername());
     }
 
     @Test
     @DisplayName("Удаление пользователя - не найден")
     void deleteUser_NotFound() {
-        when(userRepository.existsById(999L)).thenReturn(false);
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> adminService.deleteUser(999L))
                 .isInstanceOf(UserNotFoundException.class);
     }
@@ -167,37 +220,36 @@ class AdminServiceTest {
     @Test
     @DisplayName("Получение всех карт - успешно")
     void getAllCards_Success() {
-        Page<Card> page = new PageImpl<>(List.of(card));
-        when(cardRepository.findAll(pageable)).thenReturn(page);
+        Page<CardView> page = new PageImpl<>(List.of(cardView));
+        when(cardRepository.findAllViews(null, pageable)).thenReturn(page);
 
-        Page<Card> result = adminService.getAllCards(null, pageable);
+        Page<CardView> result = adminService.getAllCards(null, pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
-        verify(cardRepository).findAll(pageable);
+        verify(cardRepository).findAllViews(null, pageable);
     }
 
     @Test
     @DisplayName("Поиск карт - успешно")
     void getAllCards_WithSearch_Success() {
-        Page<Card> page = new PageImpl<>(List.of(card));
-        when(cardRepository.findAllByCardNumberMaskedContaining("1234", pageable)).thenReturn(page);
+        Page<CardView> page = new PageImpl<>(List.of(cardView));
+        when(cardRepository.findAllViews("%1234%", pageable)).thenReturn(page);
 
-        Page<Card> result = adminService.getAllCards("1234", pageable);
+        Page<CardView> result = adminService.getAllCards("1234", pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
-        verify(cardRepository).findAllByCardNumberMaskedContaining("1234", pageable);
+        verify(cardRepository).findAllViews("%1234%", pageable);
     }
 
     @Test
     @DisplayName("Получение карт пользователя - успешно")
     void getUserCards_Success() {
-        Page<Card> page = new PageImpl<>(List.of(card));
-        when(userRepository.existsById(1L)).thenReturn(true);
-        when(cardRepository.findByUserId(1L, pageable)).thenReturn(page);
+        Page<CardView> page = new PageImpl<>(List.of(cardView));
+        when(cardService.getUserCards(1L, null, pageable)).thenReturn(page);
 
-        Page<Card> result = adminService.getUserCards(1L, null, pageable);
+        Page<CardView> result = adminService.getUserCards(1L, null, pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
@@ -206,7 +258,7 @@ class AdminServiceTest {
     @Test
     @DisplayName("Получение карт пользователя - пользователь не найден")
     void getUserCards_UserNotFound() {
-        when(userRepository.existsById(999L)).thenReturn(false);
+        when(cardService.getUserCards(999L, null, pageable)).thenThrow(new UserNotFoundException(999L));
         assertThatThrownBy(() -> adminService.getUserCards(999L, null, pageable))
                 .isInstanceOf(UserNotFoundException.class);
     }
@@ -257,4 +309,34 @@ class AdminServiceTest {
         assertThatThrownBy(() -> adminService.deleteCard(999L))
                 .isInstanceOf(CardNotFoundException.class);
     }
+
+    @Test
+    @DisplayName("Выгрузка переводов - каждый перевод передается обработчику, поток закрывается")
+    void forEachTransfer_StreamsAndCloses() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        TransferView first = new TransferView(1L, 10L, 20L, new BigDecimal("50.00"),
+                LocalDateTime.of(2024, 1, 15, 10, 0), TransferStatus.COMPLETED);
+        TransferView second = new TransferView(2L, 20L, 10L, new BigDecimal("5.00"),
+                LocalDateTime.of(2024, 1, 16, 10, 0), TransferStatus.COMPLETED);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(transferRepository.streamByTimestampRange(from, to))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+
+        List<TransferView> received = new ArrayList<>();
+        adminService.forEachTransfer(from, to, received::add);
+
+        assertThat(received).containsExactly(first, second);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("Выгрузка переводов - начало периода не раньше конца")
+    void forEachTransfer_InvalidRange() {
+        LocalDateTime moment = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        assertThatThrownBy(() -> adminService.forEachTransfer(moment, moment, transfer -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(transferRepository);
+    }
 }
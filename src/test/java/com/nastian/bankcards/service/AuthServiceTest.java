@@ -3,6 +3,11 @@ package com.nastian.bankcards.service;
 import com.nastian.bankcards.dto.AuthRequest;
 import com.nastian.bankcards.entity.User;
 import com.nastian.bankcards.entity.UserRole;
+import com.nastian.bankcards.security.JwtTokenProvider;
+import com.nastian.bankcards.security.RevokedTokenRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,6 +16,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Date;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -22,6 +29,15 @@ class AuthServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
     @InjectMocks
     private AuthService authService;
 
@@ -86,4 +102,28 @@ class AuthServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("User not found");
     }
+
+    @Test
+    @DisplayName("Выход - отзыв refresh и access токенов")
+    void logout_RevokesBothTokens() {
+        Date expiration = new Date((System.currentTimeMillis() / 1000 + 60) * 1000);
+        Claims claims = Jwts.claims().id("jti-1").expiration(expiration).build();
+        when(tokenProvider.parseAndVerify("access-token")).thenReturn(claims);
+
+        authService.logout("refresh-token", "access-token");
+
+        verify(refreshTokenService).revoke("refresh-token");
+        verify(revokedTokenRegistry).revoke("jti-1", expiration);
+    }
+
+    @Test
+    @DisplayName("Выход - невалидный access токен не мешает отзыву refresh токена")
+    void logout_InvalidAccessToken() {
+        when(tokenProvider.parseAndVerify("broken")).thenThrow(new MalformedJwtException("broken"));
+
+        authService.logout("refresh-token", "broken");
+
+        verify(refreshTokenService).revoke("refresh-token");
+        verify(revokedTokenRegistry, never()).revoke(any(), any());
+    }
 }
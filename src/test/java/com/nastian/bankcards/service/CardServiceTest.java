@@ -1,6 +1,9 @@
 package com.nastian.bankcards.service;
 
+import com.nastian.bankcards.config.BankMetrics;
+import com.nastian.bankcards.dto.CardCursor;
 import com.nastian.bankcards.dto.CardRequest;
+import com.nastian.bankcards.dto.CardView;
 import com.nastian.bankcards.entity.Card;
 import com.nastian.bankcards.entity.CardStatus;
 import com.nastian.bankcards.entity.User;
@@ -14,20 +17,26 @@ import com.nastian.bankcards.repository.UserRepository;
 import com.nastian.bankcards.util.CardNumberGenerator;
 import com.nastian.bankcards.util.CardNumberMasker;
 import com.nastian.bankcards.util.EncryptionUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -57,11 +66,17 @@ class CardServiceTest {
     @Mock
     private CardNumberMasker cardNumberMasker;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BankMetrics metrics = new BankMetrics(meterRegistry);
+
     @InjectMocks
     private CardService cardService;
 
     private User user;
     private Card card;
+    private CardView cardView;
     private CardRequest cardRequest;
     private static final Long USER_ID = 1L;
     private static final Long CARD_ID = 1L;
@@ -85,6 +100,9 @@ class CardServiceTest {
         card.setCardNumberEncrypted("encrypted123");
         card.setCardNumberMasked("**** **** **** 1234");
 
+        cardView = new CardView(CARD_ID, "**** **** **** 1234", "Test User", card.getExpirationDate(),
+                CardStatus.ACTIVE, BigDecimal.ZERO, USER_ID, null);
+
         cardRequest = new CardRequest();
         cardRequest.setCardHolderName("Test User");
         cardRequest.setExpirationDate(LocalDate.now().plusYears(1));
@@ -111,6 +129,7 @@ class CardServiceTest {
         verify(encryptionUtil).encrypt(anyString());
         verify(cardNumberMasker).mask(anyString());
         verify(cardRepository).save(any(Card.class));
+        assertThat(cardCreations("success")).isEqualTo(1);
     }
 
     @Test
@@ -123,50 +142,105 @@ class CardServiceTest {
                 .hasMessageContaining(String.valueOf(OTHER_USER_ID));
 
         verify(cardRepository, never()).save(any());
+        assertThat(cardCreations("error")).isEqualTo(1);
     }
 
     @Test
     @DisplayName("Получение карт пользователя - успешно")
     void getUserCards_Success() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Card> page = new PageImpl<>(List.of(card));
+        Page<CardView> page = new PageImpl<>(List.of(cardView));
 
-        when(userRepository.existsById(USER_ID)).thenReturn(true);
-        when(cardRepository.findByUserId(USER_ID, pageable)).thenReturn(page);
+        when(cardRepository.findViewsByUserId(USER_ID, null, pageable)).thenReturn(page);
 
-        Page<Card> result = cardService.getUserCards(USER_ID, null, pageable);
+        Page<CardView> result = cardService.getUserCards(USER_ID, null, pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().get(0).getCardHolderName()).isEqualTo("Test User");
+        assertThat(result.getContent().get(0).cardHolderName()).isEqualTo("Test User");
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Получение карт пользователя без COUNT - поиск без пробелов и срез")
+    void getUserCardsSlice_WithSearch() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<CardView> slice = new SliceImpl<>(List.of(cardView), pageable, true);
+
+        when(cardRepository.findViewSliceByUserId(USER_ID, "%1234%", pageable)).thenReturn(slice);
+
+        Slice<CardView> result = cardService.getUserCardsSlice(USER_ID, " 1234 ", pageable);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.hasNext()).isTrue();
+        verify(cardRepository, never()).findViewsByUserId(any(), any(), any());
     }
 
     @Test
     @DisplayName("Получение карт пользователя с поиском - успешно")
     void getUserCards_WithSearch_Success() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Card> page = new PageImpl<>(List.of(card));
+        Page<CardView> page = new PageImpl<>(List.of(cardView));
 
-        when(userRepository.existsById(USER_ID)).thenReturn(true);
-        when(cardRepository.findByUserIdAndCardNumberMaskedContaining(eq(USER_ID), eq("1234"), eq(pageable)))
+        when(cardRepository.findViewsByUserId(eq(USER_ID), eq("%1234%"), eq(pageable)))
                 .thenReturn(page);
 
-        Page<Card> result = cardService.getUserCards(USER_ID, "1234", pageable);
+        Page<CardView> result = cardService.getUserCards(USER_ID, "1234", pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
     }
 
+    @Test
+    @DisplayName("Получение карт по курсору - лишняя строка означает следующую страницу")
+    void getUserCardsByCursor_HasNext() {
+        CardView second = new CardView(2L, "**** **** **** 5678", "Test User", card.getExpirationDate(),
+                CardStatus.ACTIVE, BigDecimal.ZERO, USER_ID, null);
+        CardCursor cursor = new CardCursor(LocalDateTime.of(2024, 1, 15, 10, 30), 42L);
+        when(cardRepository.findByUserIdAfter(USER_ID, "%1234%", cursor.createdAt(), 42L, Limit.of(2)))
+                .thenReturn(List.of(cardView, second));
+
+        Slice<CardView> result = cardService.getUserCards(USER_ID, " 1234 ", cursor, 1);
+
+        assertThat(result.getContent()).containsExactly(cardView);
+        assertThat(result.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Получение карт по курсору - последняя страница")
+    void getUserCardsByCursor_LastPage() {
+        when(cardRepository.findByUserIdAfter(USER_ID, null, CardCursor.FIRST.createdAt(), Long.MAX_VALUE, Limit.of(11)))
+                .thenReturn(List.of(cardView));
+
+        Slice<CardView> result = cardService.getUserCards(USER_ID, "", CardCursor.FIRST, 10);
+
+        assertThat(result.getContent()).containsExactly(cardView);
+        assertThat(result.hasNext()).isFalse();
+    }
+
     @Test
     @DisplayName("Получение карт пользователя - пользователь не найден")
     void getUserCards_UserNotFound() {
         Pageable pageable = PageRequest.of(0, 10);
+        when(cardRepository.findViewsByUserId(OTHER_USER_ID, null, pageable)).thenReturn(Page.empty(pageable));
         when(userRepository.existsById(OTHER_USER_ID)).thenReturn(false);
 
         assertThatThrownBy(() -> cardService.getUserCards(OTHER_USER_ID, null, pageable))
                 .isInstanceOf(UserNotFoundException.class);
     }
 
+    @Test
+    @DisplayName("Получение карт пользователя - пользователь без карт")
+    void getUserCards_NoCards() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(cardRepository.findViewsByUserId(USER_ID, null, pageable)).thenReturn(Page.empty(pageable));
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+
+        Page<CardView> result = cardService.getUserCards(USER_ID, null, pageable);
+
+        assertThat(result.getContent()).isEmpty();
+    }
+
     @Test
     @DisplayName("Проверка владения картой - успешно")
     void getCardAndValidateOwnership_Success() {
@@ -300,4 +374,8 @@ class CardServiceTest {
                 .isInstanceOf(CardNotFoundException.class)
                 .hasMessageContaining(String.valueOf(OTHER_CARD_ID));
     }
-}
\ No newline at end of file
+
+    private long cardCreations(String outcome) {
+        return meterRegistry.get(BankMetrics.CARD_CREATION).tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,108 @@
+package com.nastian.bankcards.service;
+
+import com.nastian.bankcards.config.JwtProperties;
+import com.nastian.bankcards.entity.RefreshToken;
+import com.nastian.bankcards.entity.User;
+import com.nastian.bankcards.exception.InvalidTokenException;
+import com.nastian.bankcards.repository.RefreshTokenRepository;
+import com.nastian.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private UserRepository userRepository;
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        userRepository = mock(UserRepository.class);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, new JwtProperties());
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("tester");
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+    }
+
+    private RefreshToken storedToken(boolean revoked, LocalDateTime expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setRevoked(revoked);
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+
+    @Test
+    @DisplayName("В БД сохраняется только хэш refresh токена")
+    void issue_StoresHash() {
+        String rawToken = refreshTokenService.issue(1L);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertThat(captor.getValue().getTokenHash()).hasSize(64).isNotEqualTo(rawToken);
+        assertThat(captor.getValue().getExpiresAt()).isAfter(LocalDateTime.now().plusDays(29));
+    }
+
+    @Test
+    @DisplayName("Ротация отзывает старый токен и выдает новый")
+    void rotate_Success() {
+        RefreshToken stored = storedToken(false, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashForUpdate(anyString())).thenReturn(Optional.of(stored));
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("old-token");
+
+        assertThat(stored.isRevoked()).isTrue();
+        assertThat(rotation.user()).isSameAs(user);
+        assertThat(rotation.refreshToken()).isNotBlank().isNotEqualTo("old-token");
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+    }
+
+    @Test
+    @DisplayName("Повторное использование токена отзывает все токены пользователя")
+    void rotate_ReuseRevokesAll() {
+        when(refreshTokenRepository.findByTokenHashForUpdate(anyString()))
+                .thenReturn(Optional.of(storedToken(true, LocalDateTime.now().plusDays(1))));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("used-token"))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessageContaining("already been used");
+
+        verify(refreshTokenRepository).revokeAllByUserId(1L);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Истекший токен отклоняется")
+    void rotate_Expired() {
+        when(refreshTokenRepository.findByTokenHashForUpdate(anyString()))
+                .thenReturn(Optional.of(storedToken(false, LocalDateTime.now().minusMinutes(1))));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("expired-token"))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    @DisplayName("Неизвестный токен отклоняется")
+    void rotate_Unknown() {
+        when(refreshTokenRepository.findByTokenHashForUpdate(anyString())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown"))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+}
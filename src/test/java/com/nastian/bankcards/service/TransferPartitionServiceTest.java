@@ -0,0 +1,68 @@
+package com.nastian.bankcards.service;
+
+import com.nastian.bankcards.config.TransferPartitionProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransferPartitionServiceTest {
+
+    @Test
+    @DisplayName("Имя секции и обратный разбор месяца")
+    void partitionName_RoundTrip() {
+        String name = TransferPartitionService.partitionName(YearMonth.of(2024, 1));
+
+        assertThat(name).isEqualTo("transfers_p202401");
+        assertThat(TransferPartitionService.partitionMonth(name)).contains(YearMonth.of(2024, 1));
+        assertThat(TransferPartitionService.partitionMonth("transfers_legacy")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Создаются текущий месяц и месяцы вперед через границу года")
+    void requiredMonths_CrossesYear() {
+        assertThat(TransferPartitionService.requiredMonths(YearMonth.of(2024, 11), 3)).containsExactly(
+                YearMonth.of(2024, 11), YearMonth.of(2024, 12), YearMonth.of(2025, 1), YearMonth.of(2025, 2));
+    }
+
+    @Test
+    @DisplayName("Архивируются только месячные секции раньше первого хранимого месяца")
+    void isExpired_OnlyOlderPartitions() {
+        YearMonth oldestKept = YearMonth.of(2024, 6);
+
+        assertThat(TransferPartitionService.isExpired("transfers_p202405", oldestKept)).isTrue();
+        assertThat(TransferPartitionService.isExpired("transfers_p202406", oldestKept)).isFalse();
+        assertThat(TransferPartitionService.isExpired("transfers_archive", oldestKept)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Архивирование выключено по умолчанию")
+    void archiveDir_DisabledByDefault() {
+        assertThat(TransferPartitionService.archiveDir(new TransferPartitionProperties.Archive())).isNull();
+    }
+
+    @Test
+    @DisplayName("Включенное архивирование требует срок хранения и абсолютный каталог")
+    void archiveDir_RequiresRetentionAndAbsoluteDir() {
+        TransferPartitionProperties.Archive archive = new TransferPartitionProperties.Archive();
+        archive.setEnabled(true);
+        archive.setDir("/var/lib/bank/archive");
+
+        assertThatThrownBy(() -> TransferPartitionService.archiveDir(archive))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("retention-months");
+
+        archive.setRetentionMonths(12);
+        archive.setDir("archive/transfers");
+        assertThatThrownBy(() -> TransferPartitionService.archiveDir(archive))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("absolute path");
+
+        archive.setDir("/var/lib/bank/archive");
+        assertThat(TransferPartitionService.archiveDir(archive)).isEqualTo(Path.of("/var/lib/bank/archive"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.nastian.bankcards.service;
 
+import com.nastian.bankcards.config.BankMetrics;
 import com.nastian.bankcards.dto.TransferRequest;
 import com.nastian.bankcards.entity.Card;
 import com.nastian.bankcards.entity.CardStatus;
@@ -12,12 +13,14 @@ import com.nastian.bankcards.exception.InsufficientFundsException;
 import com.nastian.bankcards.exception.UnauthorizedAccessException;
 import com.nastian.bankcards.repository.CardRepository;
 import com.nastian.bankcards.repository.TransferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -41,6 +44,11 @@ class TransferServiceTest {
     @Mock
     private CardService cardService;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BankMetrics metrics = new BankMetrics(meterRegistry);
+
     @InjectMocks
     private TransferService transferService;
 
@@ -98,6 +106,7 @@ class TransferServiceTest {
         verify(cardService, times(2)).validateCardActive(any(Card.class));
         verify(cardRepository, times(2)).save(any(Card.class));
         verify(transferRepository, times(1)).save(any(Transfer.class));
+        assertThat(transfers("success")).isEqualTo(1);
     }
 
     @Test
@@ -115,6 +124,8 @@ class TransferServiceTest {
 
         verify(cardRepository, never()).save(any());
         verify(transferRepository, never()).save(any());
+        assertThat(transfers("insufficient_funds")).isEqualTo(1);
+        assertThat(transfers("success")).isZero();
     }
 
     @Test
@@ -130,6 +141,7 @@ class TransferServiceTest {
 
         verify(cardRepository, never()).save(any());
         verify(transferRepository, never()).save(any());
+        assertThat(transfers("rejected")).isEqualTo(1);
     }
 
     @Test
@@ -146,6 +158,7 @@ class TransferServiceTest {
 
         verify(cardRepository, never()).save(any());
         verify(transferRepository, never()).save(any());
+        assertThat(transfers("card_not_active")).isEqualTo(1);
     }
 
     @Test
@@ -233,4 +246,8 @@ class TransferServiceTest {
 
         verify(transferRepository, times(1)).save(any(Transfer.class));
     }
-}
\ No newline at end of file
+
+    private long transfers(String outcome) {
+        return meterRegistry.get(BankMetrics.TRANSFERS).tag("outcome", outcome).timer().count();
+    }
+}
@@ -15,6 +15,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -57,8 +58,7 @@ class UserServiceTest {
     @DisplayName("Регистрация нового пользователя - успешно")
     void register_Success() {
 
-        when(userRepository.existsByUsername("tester")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
+        when(userRepository.findByUsernameOrEmail("tester", "test@example.com")).thenReturn(List.of());
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(user);
 
@@ -69,29 +69,29 @@ class UserServiceTest {
         assertThat(result.getEmail()).isEqualTo("test@example.com");
         assertThat(result.getRole()).isEqualTo(UserRole.USER);
 
-        verify(userRepository).existsByUsername("tester");
-        verify(userRepository).existsByEmail("test@example.com");
+        verify(userRepository).findByUsernameOrEmail("tester", "test@example.com");
         verify(passwordEncoder).encode("password123");
         verify(userRepository).save(any(User.class));
     }
 
+    @Test
     @DisplayName("Регистрация - username уже существует")
     void register_UsernameExists() {
-        when(userRepository.existsByUsername("tester")).thenReturn(true);
+        when(userRepository.findByUsernameOrEmail("tester", "test@example.com")).thenReturn(List.of(user));
 
         assertThatThrownBy(() -> userService.register(authRequest))
                 .isInstanceOf(DuplicateResourceException.class)
                 .hasMessageContaining("Username already exists with value: tester");
 
         verify(userRepository, never()).save(any());
-        verify(userRepository, never()).existsByEmail(any());
+        verify(passwordEncoder, never()).encode(any());
     }
 
     @Test
     @DisplayName("Регистрация - email уже существует")
     void register_EmailExists() {
-        when(userRepository.existsByUsername("tester")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
+        user.setUsername("other");
+        when(userRepository.findByUsernameOrEmail("tester", "test@example.com")).thenReturn(List.of(user));
 
         assertThatThrownBy(() -> userService.register(authRequest))
                 .isInstanceOf(DuplicateResourceException.class)
@@ -104,8 +104,7 @@ class UserServiceTest {
     @DisplayName("Регистрация администратора - успешно")
     void register_Admin_Success() {
         authRequest.setRole(UserRole.ADMIN);
-        when(userRepository.existsByUsername("tester")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
+        when(userRepository.findByUsernameOrEmail("tester", "test@example.com")).thenReturn(List.of());
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(user);
 
@@ -139,7 +138,7 @@ class UserServiceTest {
     @Test
     @DisplayName("Поиск пользователя по username - успешно")
     void findByUsername_Success() {
-        when(userRepository.findByUsername("tester")).thenReturn(Optional.of(user));
+        when(userRepository.findByNaturalId("tester")).thenReturn(Optional.of(user));
 
         User result = userService.findByUsername("tester");
 
@@ -150,7 +149,7 @@ class UserServiceTest {
     @Test
     @DisplayName("Поиск пользователя по username - не найден")
     void findByUsername_NotFound() {
-        when(userRepository.findByUsername("unknown")).thenReturn(Optional.empty());
+        when(userRepository.findByNaturalId("unknown")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.findByUsername("unknown"))
                 .isInstanceOf(UserNotFoundException.class)